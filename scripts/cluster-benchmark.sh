@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Plan-cache hit rate and throughput of N planner instances on localhost, first as independent
+# nodes behind round-robin, then as one cluster routing by profile fingerprint (ClusterRouter).
+#
+#   scripts/cluster-benchmark.sh [nodes] [requests] [profiles]
+#
+# Needs the fat jar (mvn package) and the bench classes (mvn -Pbench compile, then
+# mvn dependency:build-classpath -Dmdep.outputFile=target/bench.cp).
+set -euo pipefail
+
+NODES=${1:-3}
+REQUESTS=${2:-20000}
+PROFILES=${3:-2000}
+BASE_PORT=${BASE_PORT:-18081}
+CACHE=${CACHE:-500}   # per node; smaller than the profile set, so placement matters
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/target/personalized-planner-1.0.0.jar"
+
+[ -f "$JAR" ] || { echo "build first: mvn package" >&2; exit 1; }
+[ -f "$ROOT/target/bench.cp" ] || { echo "missing target/bench.cp (see header)" >&2; exit 1; }
+
+urls=()
+for i in $(seq 0 $((NODES - 1))); do urls+=("http://localhost:$((BASE_PORT + i))"); done
+ALL=$(IFS=,; echo "${urls[*]}")
+
+pids=()
+stop_all() { for p in "${pids[@]}"; do kill "$p" 2>/dev/null || true; done; wait 2>/dev/null || true; pids=(); }
+trap stop_all EXIT
+
+# $1 = label, $2 = cluster node list ("" for independent nodes)
+run() {
+  local label=$1 cluster=$2
+  for i in $(seq 0 $((NODES - 1))); do
+    java -jar "$JAR" --server.port=$((BASE_PORT + i)) --planner.plan-cache.size="$CACHE" \
+      --planner.cluster.nodes="$cluster" --planner.cluster.self="${urls[$i]}" >/dev/null 2>&1 &
+    pids+=($!)
+  done
+  for u in "${urls[@]}"; do
+    until curl -s -o /dev/null "$u/api/cluster"; do sleep 0.2; done
+  done
+  echo "== $label"
+  java -cp "$ROOT/target/classes:$(cat "$ROOT/target/bench.cp")" com.project.planner.bench.ClusterBenchmark \
+    "$ALL" "$REQUESTS" "$PROFILES"
+  stop_all
+}
+
+run "independent" ""
+run "cluster" "$ALL"
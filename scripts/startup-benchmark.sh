@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Time from JVM launch to the first successful POST /generate, median of N runs.
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Compares the plain fat jar with the AOT + AppCDS layout from `mvn -Pstartup package`
+# (skipped if target/cds is missing).
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR="$ROOT/target/personalized-planner-1.0.0.jar"
+CDS="$ROOT/target/cds"
+FORM='name=Bench&age=30&sex=MALE&heightCm=175&weightKg=70&activityLevel=MODERATE&experience=BEGINNER&goal=LOSE_FAT&workoutDaysPerWeek=4&minutesPerWorkout=45&dailyFoodBudget=250&region=India'
+
+now_ms() { date +%s%3N; }
+
+# $1 = label, $2 = working dir, rest = java args
+measure() {
+  local label=$1 dir=$2; shift 2
+  local times=()
+  for _ in $(seq 1 "$RUNS"); do
+    local start pid
+    start=$(now_ms)
+    (cd "$dir" && exec java -Dserver.port="$PORT" "$@" >/dev/null 2>&1) &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' -d "$FORM" "http://localhost:$PORT/generate" || true)" = "200" ]; do
+      kill -0 "$pid" 2>/dev/null || { echo "$label: process exited before serving" >&2; return 1; }
+      sleep 0.02
+    done
+    times+=($(( $(now_ms) - start )))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+  done
+  local median
+  median=$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+  printf '%-12s median %5d ms   runs: %s\n' "$label" "$median" "${times[*]}"
+}
+
+[ -f "$JAR" ] || { echo "build first: mvn package" >&2; exit 1; }
+measure "fat-jar" "$ROOT" -jar "$JAR"
+
+if [ -f "$CDS/application.jsa" ]; then
+  measure "aot+cds" "$CDS" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -cp "application.jar:BOOT-INF/lib/*" com.project.planner.PersonalizedPlannerApplication
+else
+  echo "aot+cds     skipped (run: mvn -Pstartup package)"
+fi
@@ -0,0 +1,136 @@
+package com.project.planner.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.dto.UserInputDTO;
+
+/**
+ * ClusterBenchmark
+ * - Load driver for several running planner instances: POST /api/plan round-robin across the nodes
+ *   (as a load balancer would), drawing profiles from a Zipf-like distribution over P distinct ones.
+ * - Reports throughput, and the aggregate plan-cache hit rate summed over /api/cluster of every node.
+ * - Run against independent nodes and against the same nodes in cluster mode to compare;
+ *   scripts/cluster-benchmark.sh starts both setups on localhost and runs this twice.
+ * - java -cp "target/classes:$(cat target/bench.cp)" com.project.planner.bench.ClusterBenchmark
+ *   http://localhost:8081,http://localhost:8082 [requests] [profiles] [threads]
+ */
+public class ClusterBenchmark {
+
+    private static final String[] SEX = {"MALE", "FEMALE"};
+    private static final String[] ACTIVITY = {"SEDENTARY", "LIGHT", "MODERATE", "ACTIVE"};
+    private static final String[] GOAL = {"LOSE_FAT", "MAINTAIN", "GAIN_MUSCLE"};
+
+    public static void main(String[] args) throws Exception {
+        String[] nodes = args[0].split(",");
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int profiles = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        ObjectMapper json = new ObjectMapper();
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        List<byte[]> bodies = new ArrayList<>(profiles);
+        for (int i = 0; i < profiles; i++) bodies.add(json.writeValueAsBytes(dto(i)));
+        double[] cdf = zipf(profiles, 0.9);
+
+        Map<String, Long> before = cacheTotals(http, json, nodes);
+        AtomicLong next = new AtomicLong(), ok = new AtomicLong(), failed = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers.add(pool.submit(() -> {
+                SplittableRandom rnd = new SplittableRandom(seed);
+                for (long i; (i = next.getAndIncrement()) < requests; ) {
+                    byte[] body = bodies.get(sample(cdf, rnd.nextDouble()));
+                    HttpRequest req = HttpRequest.newBuilder(URI.create(nodes[(int) (i % nodes.length)] + "/api/plan"))
+                            .header("Content-Type", "application/json")
+                            .header("X-Client-Id", "bench-" + (i % 1000)) // stay clear of per-client rate limits
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                            .build();
+                    try {
+                        int status = http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        (status == 200 ? ok : failed).incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> w : workers) w.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        Map<String, Long> after = cacheTotals(http, json, nodes);
+        long hits = after.get("hits") - before.get("hits");
+        long misses = after.get("misses") - before.get("misses");
+        long forwarded = after.get("forwarded") - before.get("forwarded");
+        System.out.printf("%d nodes, %,d requests over %,d profiles: %,.0f req/s, %,d failed%n",
+                nodes.length, requests, profiles, ok.get() / seconds, failed.get());
+        System.out.printf("plan cache: %,d hits / %,d lookups = %.1f%% aggregate hit rate; %,d forwarded%n",
+                hits, hits + misses, 100.0 * hits / Math.max(1, hits + misses), forwarded);
+    }
+
+    private static Map<String, Long> cacheTotals(HttpClient http, ObjectMapper json, String[] nodes) throws Exception {
+        long hits = 0, misses = 0, forwarded = 0;
+        for (String node : nodes) {
+            String body = http.send(HttpRequest.newBuilder(URI.create(node + "/api/cluster")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Map<?, ?> stats = json.readValue(body, Map.class);
+            hits += ((Number) stats.get("planCacheHits")).longValue();
+            misses += ((Number) stats.get("planCacheMisses")).longValue();
+            forwarded += ((Number) stats.get("forwarded")).longValue();
+        }
+        return Map.of("hits", hits, "misses", misses, "forwarded", forwarded);
+    }
+
+    private static double[] zipf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) cdf[i] = sum += 1 / Math.pow(i + 1, s);
+        for (int i = 0; i < n; i++) cdf[i] /= sum;
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int lo = 0, hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static UserInputDTO dto(int i) {
+        SplittableRandom r = new SplittableRandom(i);
+        UserInputDTO d = new UserInputDTO();
+        d.setName("p" + i);
+        d.setAge(18 + r.nextInt(50));
+        d.setSex(SEX[r.nextInt(SEX.length)]);
+        d.setHeightCm(150 + r.nextInt(45));
+        d.setWeightKg(50 + r.nextInt(60));
+        d.setActivityLevel(ACTIVITY[r.nextInt(ACTIVITY.length)]);
+        d.setGoal(GOAL[r.nextInt(GOAL.length)]);
+        d.setWorkoutDaysPerWeek(3 + r.nextInt(4));
+        d.setMinutesPerWorkout(30 + 15 * r.nextInt(4));
+        d.setDailyFoodBudget(200 + 50 * r.nextInt(10));
+        d.setRegion("India");
+        d.setVegetarian(r.nextInt(3) == 0);
+        return d;
+    }
+}
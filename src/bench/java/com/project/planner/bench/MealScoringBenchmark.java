@@ -0,0 +1,99 @@
+package com.project.planner.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.planner.logic.MealColumns;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.ScoringKernel;
+
+/**
+ * MealScoringBenchmark (JMH)
+ * - Candidate selection over n meals sorted by cost, as in MealPools.byCost:
+ *   firstFit = cheapest meal within a calorie and cost limit (the greedy fill's pickAffordable), with
+ *   the only fitting meal planted near the end so every variant scans the whole list.
+ * - Variants: Stream and for-each over List<Meal> (the engine's code before MealColumns), and the
+ *   scalar and Vector API kernels over MealColumns. setup() checks that all four agree.
+ * - mvn -Pbench,simd compile, then
+ *   java --add-modules jdk.incubator.vector -cp "target/classes:$(cat target/bench.cp)" \
+ *        org.openjdk.jmh.Main MealScoringBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MealScoringBenchmark {
+
+    private static final int FIT_KCAL = 120;
+    private static final double FIT_COST = 1e9;
+
+    @Param({"25", "1000", "100000"})
+    public int n;
+
+    private List<Meal> meals;
+    private MealColumns scalar;
+    private MealColumns vector;
+
+    @Setup
+    public void setup() {
+        SplittableRandom rnd = new SplittableRandom(42);
+        meals = new ArrayList<>(n);
+        double cost = 20;
+        for (int i = 0; i < n; i++) {
+            int kcal = i == n - Math.min(n, 5) ? 100 : 150 + rnd.nextInt(750);
+            cost += rnd.nextDouble();
+            meals.add(Meal.of("meal-" + i, "Bench", false, false, kcal,
+                    5 + rnd.nextInt(45), 10 + rnd.nextInt(90), 3 + rnd.nextInt(30), Math.round(cost * 100) / 100.0,
+                    true, false, false));
+        }
+        scalar = new MealColumns(meals, ScoringKernel.SCALAR);
+        vector = new MealColumns(meals, ScoringKernel.preferred());
+        if (vector.kernel() == ScoringKernel.SCALAR) {
+            System.err.println("Vector API not available; build with -Psimd and start the JVM with --add-modules jdk.incubator.vector");
+        }
+        Meal fit = streamFirstFit();
+        if (fit != loopFirstFit() || fit != meals.get(scalar.firstFit(FIT_KCAL, FIT_COST))
+                || fit != meals.get(vector.firstFit(FIT_KCAL, FIT_COST))) {
+            throw new IllegalStateException("firstFit variants disagree");
+        }
+    }
+
+    @Benchmark
+    public Meal streamFirstFit() {
+        return meals.stream().filter(m -> m.cost <= FIT_COST && m.calories <= FIT_KCAL).findFirst().orElse(null);
+    }
+
+    @Benchmark
+    public Meal loopFirstFit() {
+        for (Meal m : meals) {
+            if (m.cost <= FIT_COST && m.calories <= FIT_KCAL) return m;
+        }
+        return null;
+    }
+
+    @Benchmark
+    public int scalarFirstFit() {
+        return scalar.firstFit(FIT_KCAL, FIT_COST);
+    }
+
+    @Benchmark
+    public int vectorFirstFit() {
+        return vector.firstFit(FIT_KCAL, FIT_COST);
+    }
+}
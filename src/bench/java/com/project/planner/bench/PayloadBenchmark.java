@@ -0,0 +1,192 @@
+package com.project.planner.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.linkbuilder.StandardLinkBuilder;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.logic.PlannerEngine;
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.UserProfile;
+import com.project.planner.service.PayloadCache;
+import com.project.planner.service.PlanResult;
+import com.project.planner.service.ProfileMapper;
+import com.project.planner.service.ProfileNormalizer;
+
+/**
+ * PayloadBenchmark (JMH)
+ * - One response for a finished plan, as the controller produces it:
+ *   json/html = walking the PlanResult through Jackson, or the result template through a standalone
+ *   SpringTemplateEngine (links left unrewritten); gzip = the same, then gzip as Tomcat compresses it;
+ *   cached = copying the PayloadCache buffer into a heap buffer the size of Tomcat's output buffer.
+ * - Run with -prof gc to compare allocation per response as well.
+ * - mvn -Pbench compile, then
+ *   java -cp "target/classes:$(cat target/bench.cp)" org.openjdk.jmh.Main PayloadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ByteArrayOutputStream sink = new ByteArrayOutputStream(64 * 1024);
+    private final ByteBuffer socketBuffer = ByteBuffer.allocate(64 * 1024);
+    private TemplateEngine templates;
+    private PlanResult result;
+    private Context page;
+    private PayloadCache.Payload cachedJson;
+    private PayloadCache.Payload cachedHtml;
+
+    @Setup
+    public void setup() throws IOException {
+        UserInputDTO dto = new UserInputDTO();
+        dto.setName("Asha");
+        dto.setAge(30);
+        dto.setSex("female");
+        dto.setHeightCm(165);
+        dto.setWeightKg(60);
+        dto.setActivityLevel("light");
+        dto.setGoal("maintain");
+        dto.setHasDumbbells(true);
+        dto.setWorkoutDaysPerWeek(4);
+        dto.setMinutesPerWorkout(40);
+        dto.setDailyFoodBudget(300);
+        dto.setRegion("India");
+        UserProfile profile = ProfileMapper.toUserProfile(dto);
+        PlannerEngine engine = new PlannerEngine();
+        WeeklyPlan plan = engine.generateWeeklyPlan(profile);
+        Map<String, Integer> shoppingList = new HashMap<>();
+        for (DayPlan d : plan.days) {
+            for (Meal m : d.meals) {
+                for (String ing : m.ingredients) shoppingList.merge(ing, 1, Integer::sum);
+            }
+        }
+        result = new PlanResult(profile, plan, shoppingList, Map.of(), 0, "bench-plan",
+                ProfileNormalizer.fingerprint(profile), engine.catalogVersion());
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        templates = new SpringTemplateEngine();
+        templates.setTemplateResolver(resolver);
+        templates.setLinkBuilder(new StandardLinkBuilder() {
+            @Override
+            protected String computeContextPath(IExpressionContext context, String base, Map<String, Object> parameters) {
+                return "";
+            }
+        });
+        page = new Context();
+        page.setVariable("profile", profile);
+        page.setVariable("dailyCalories", plan.days.get(0).targetCalories);
+        page.setVariable("dailyBudget", profile.getSchedule().getDailyFoodBudget());
+        page.setVariable("weeklyBudget", profile.getSchedule().getDailyFoodBudget() * 7);
+        page.setVariable("weeklyCost", plan.weeklyCost);
+        page.setVariable("weeklyPlan", plan);
+        page.setVariable("shoppingList", shoppingList);
+
+        cachedJson = PayloadCache.Payload.encode("application/json", json.writeValueAsBytes(result));
+        sink.reset();
+        renderHtml(sink);
+        cachedHtml = PayloadCache.Payload.encode("text/html;charset=UTF-8", sink.toByteArray());
+        System.err.printf("json %d B (gzip %d B), html %d B (gzip %d B)%n", cachedJson.size(false),
+                cachedJson.size(true), cachedHtml.size(false), cachedHtml.size(true));
+    }
+
+    @Benchmark
+    public int json() throws IOException {
+        sink.reset();
+        json.writeValue(sink, result);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int jsonGzip() throws IOException {
+        sink.reset();
+        try (GZIPOutputStream out = new GZIPOutputStream(sink)) {
+            json.writeValue(out, result);
+        }
+        return sink.size();
+    }
+
+    @Benchmark
+    public int html() throws IOException {
+        sink.reset();
+        renderHtml(sink);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int htmlGzip() throws IOException {
+        sink.reset();
+        try (GZIPOutputStream out = new GZIPOutputStream(sink)) {
+            renderHtml(out);
+        }
+        return sink.size();
+    }
+
+    @Benchmark
+    public int cachedJson() {
+        return serve(cachedJson, false);
+    }
+
+    @Benchmark
+    public int cachedJsonGzip() {
+        return serve(cachedJson, true);
+    }
+
+    @Benchmark
+    public int cachedHtml() {
+        return serve(cachedHtml, false);
+    }
+
+    @Benchmark
+    public int cachedHtmlGzip() {
+        return serve(cachedHtml, true);
+    }
+
+    private int serve(PayloadCache.Payload payload, boolean gzip) {
+        socketBuffer.clear();
+        socketBuffer.put(payload.body(gzip));
+        return socketBuffer.position();
+    }
+
+    private void renderHtml(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        templates.process("result", page, writer);
+        writer.flush();
+    }
+}
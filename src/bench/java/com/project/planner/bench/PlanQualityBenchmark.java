@@ -0,0 +1,347 @@
+package com.project.planner.bench;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.logic.CatalogVocabulary;
+import com.project.planner.logic.FastPlannerEngine;
+import com.project.planner.logic.FeasibilityCheck;
+import com.project.planner.logic.PlannerEngine;
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Exercise;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.logic.PlanningEngine;
+import com.project.planner.model.Goal;
+import com.project.planner.model.UserProfile;
+import com.project.planner.service.PriceService;
+import com.project.planner.service.ProfileMapper;
+
+/**
+ * PlanQualityBenchmark
+ * - Plans the same N seeded synthetic profiles with each PlanningEngine candidate (PlanningEngine.candidate
+ *   names), one engine after another on one thread, after an untimed warm-up pass of W other profiles.
+ * - Per plan: latency, allocated bytes (ThreadMXBean), and quality:
+ *   kcal = mean |day calories - target| in kcal, worstKcal = the week's largest such miss;
+ *   macro = distance of the week's protein/carb/fat calorie split from the goal's REFERENCE_SPLIT
+ *   (half the L1 distance: 0 = exact, 1 = disjoint);
+ *   budget = weekly cost / weekly budget (1 = fully used; over 1 = over budget);
+ *   variety = distinct meals / meals served; workoutMin = mean |session minutes - minutesPerWorkout|.
+ * - Prints one summary row per engine (means, latency and worst-kcal percentiles), then the engines on
+ *   the Pareto front over all objectives and over latency against each quality metric. Budget counts
+ *   as |1 - utilization|, so leaving money unused and overspending both count as misses.
+ * - Synthetic allergies, dislikes and cuisines are drawn from the catalog's CatalogVocabulary, each
+ *   term weighted by the number of meals using it, so every preference names something the catalog has.
+ * - Profiles FeasibilityCheck rejects, and plans an engine declines (returns null), are counted as
+ *   declined and not scored: a profile no plan can satisfy says nothing about the engine.
+ * - java -cp "target/classes:$(cat target/bench.cp)" com.project.planner.bench.PlanQualityBenchmark
+ *   [engines=greedy,template] [profiles=5000] [seed=1] [per-plan.csv]
+ */
+public class PlanQualityBenchmark {
+
+    private static final String[] SEX = {"MALE", "FEMALE"};
+    private static final String[] ACTIVITY = {"SEDENTARY", "LIGHT", "MODERATE", "ACTIVE", "VERY_ACTIVE"};
+    private static final String[] EXPERIENCE = {"BEGINNER", "INTERMEDIATE", "ADVANCED"};
+    private static final String[] GOAL = {"LOSE_FAT", "MAINTAIN", "GAIN_MUSCLE"};
+    private static final String[] REGION = {"India", "USA", "UK", null};
+    /** Protein/carb/fat share of calories each goal is scored against (harness reference, not engine input). */
+    private static final double[][] REFERENCE_SPLIT = {
+            {0.30, 0.40, 0.30}, // LOSE_FAT
+            {0.20, 0.50, 0.30}, // MAINTAIN
+            {0.25, 0.50, 0.25}, // GAIN_MUSCLE
+    };
+    private static final int WARMUP_PROFILES = 500;
+    private static final long TEMPLATE_WARMUP_MS = 30_000;
+
+    // Summary.values columns; MAXIMIZE marks those where higher is better
+    private static final String[] OBJECTIVES = {"p50Us", "allocKB", "kcal", "macro", "budgetGap", "variety", "workoutMin"};
+    private static final boolean[] MAXIMIZE = {false, false, false, false, false, true, false};
+
+    public static void main(String[] args) throws Exception {
+        String[] engines = (args.length > 0 ? args[0] : "greedy,template").split(",");
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        PrintWriter csv = args.length > 3 ? new PrintWriter(Files.newBufferedWriter(Path.of(args[3]), StandardCharsets.UTF_8)) : null;
+        if (csv != null) csv.println("engine,profile,latencyUs,allocBytes,kcal,worstKcal,macro,budget,variety,workoutMin");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PlannerEngine primary = new PlannerEngine();
+        primary.setPrices(PriceService.bundled());
+        primary.warmUp();
+        Terms terms = new Terms(CatalogVocabulary.bundled(primary.catalog()));
+        List<UserProfile> profiles = profiles(n, seed, terms);
+        List<UserProfile> warmup = profiles(WARMUP_PROFILES, seed + 1, terms);
+        FeasibilityCheck feasibility = new FeasibilityCheck(primary);
+        int[] targets = new int[n];
+        boolean[] feasible = new boolean[n];
+        int infeasible = 0;
+        for (int i = 0; i < n; i++) {
+            targets[i] = primary.targetCalories(profiles.get(i));
+            feasible[i] = feasibility.check(profiles.get(i), targets[i]).feasible;
+            if (!feasible[i]) infeasible++;
+        }
+
+        List<Summary> summaries = new ArrayList<>();
+        for (String name : engines) {
+            PlanningEngine engine = PlanningEngine.candidate(name.trim(), primary);
+            if (engine instanceof FastPlannerEngine fast) warmTemplates(fast);
+            for (UserProfile u : warmup) engine.plan(u, primary.targetCalories(u));
+
+            Summary s = new Summary(engine.name(), n);
+            long tid = Thread.currentThread().getId();
+            for (int i = 0; i < n; i++) {
+                if (!feasible[i]) {
+                    s.declined++;
+                    continue;
+                }
+                UserProfile u = profiles.get(i);
+                long alloc = threads.getThreadAllocatedBytes(tid);
+                long start = System.nanoTime();
+                WeeklyPlan plan = engine.plan(u, targets[i]);
+                long nanos = System.nanoTime() - start;
+                long bytes = threads.getThreadAllocatedBytes(tid) - alloc;
+                if (plan == null) {
+                    s.declined++;
+                    continue;
+                }
+                Quality q = Quality.of(u, plan);
+                s.add(nanos, bytes, q);
+                if (csv != null) {
+                    csv.printf(Locale.ROOT, "%s,%d,%.1f,%d,%.1f,%d,%.4f,%.4f,%.4f,%.2f%n", s.engine, i, nanos / 1e3, bytes,
+                            q.kcal, q.worstKcal, q.macro, q.budget, q.variety, q.workoutMin);
+                }
+            }
+            summaries.add(s.finish());
+        }
+        if (csv != null) csv.close();
+        report(summaries, n, seed, infeasible);
+    }
+
+    private static void warmTemplates(FastPlannerEngine fast) throws InterruptedException {
+        // as at service startup, so template builds don't land in the measured latencies
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            fast.warmUp(pool, TEMPLATE_WARMUP_MS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void report(List<Summary> summaries, int n, long seed, int infeasible) {
+        System.out.printf("%d profiles, seed %d, %d infeasible (declined by every engine)%n%n", n, seed, infeasible);
+        System.out.printf("%-10s %7s %8s %8s %8s %8s %9s %7s %7s %9s %10s %8s %11s %9s%n", "engine", "plans",
+                "p50Us", "p99Us", "allocKB", "kcal", "p95worst", "macro", "budget", "overBud%", "budgetGap",
+                "variety", "workoutMin", "declined");
+        for (Summary s : summaries) {
+            System.out.printf(Locale.ROOT, "%-10s %7d %8.0f %8.0f %8.1f %8.1f %9d %7.3f %7.3f %9.1f %10.3f %8.3f %11.2f %9d%n",
+                    s.engine, s.plans, s.values[0], s.p99Us, s.values[1], s.values[2], s.p95WorstKcal, s.values[3],
+                    s.meanBudget, 100.0 * s.overBudget / Math.max(1, s.plans), s.values[4], s.values[5], s.values[6],
+                    s.declined);
+        }
+        System.out.println();
+        System.out.println("Pareto front, all objectives: " + front(summaries, allObjectives()));
+        for (int q = 2; q < OBJECTIVES.length; q++) {
+            System.out.println("Pareto front, p50Us vs " + OBJECTIVES[q] + ": " + front(summaries, new int[]{0, q}));
+        }
+    }
+
+    private static int[] allObjectives() {
+        int[] all = new int[OBJECTIVES.length];
+        for (int i = 0; i < all.length; i++) all[i] = i;
+        return all;
+    }
+
+    /** Engines no other engine dominates (at least as good on every objective, better on one). */
+    static List<String> front(List<Summary> summaries, int[] objectives) {
+        List<String> out = new ArrayList<>();
+        for (Summary a : summaries) {
+            boolean dominated = false;
+            for (Summary b : summaries) {
+                if (a != b && a.plans > 0 && b.plans > 0 && dominates(b, a, objectives)) dominated = true;
+            }
+            if (!dominated && a.plans > 0) out.add(a.engine);
+        }
+        return out;
+    }
+
+    private static boolean dominates(Summary b, Summary a, int[] objectives) {
+        boolean better = false;
+        for (int o : objectives) {
+            double x = MAXIMIZE[o] ? b.values[o] : -b.values[o];
+            double y = MAXIMIZE[o] ? a.values[o] : -a.values[o];
+            if (x < y) return false;
+            if (x > y) better = true;
+        }
+        return better;
+    }
+
+    /** Quality of one week; see the class comment for the definitions. */
+    static final class Quality {
+        double kcal;
+        int worstKcal;
+        double macro;
+        double budget;
+        double variety;
+        double workoutMin;
+
+        static Quality of(UserProfile u, WeeklyPlan plan) {
+            Quality q = new Quality();
+            double protein = 0, carbs = 0, fat = 0;
+            int meals = 0, sessions = 0;
+            Set<String> distinct = new HashSet<>();
+            for (DayPlan d : plan.days) {
+                int miss = Math.abs(d.totalCalories - d.targetCalories);
+                q.kcal += miss;
+                q.worstKcal = Math.max(q.worstKcal, miss);
+                protein += 4.0 * d.protein;
+                carbs += 4.0 * d.carbs;
+                fat += 9.0 * d.fat;
+                for (Meal m : d.meals) distinct.add(m.name);
+                meals += d.meals.size();
+                if (!d.restDay) {
+                    int minutes = 0;
+                    for (Exercise e : d.workout) minutes += e.estMinutes;
+                    q.workoutMin += Math.abs(minutes - u.getSchedule().getMinutesPerWorkout());
+                    sessions++;
+                }
+            }
+            q.kcal /= Math.max(1, plan.days.size());
+            double total = Math.max(1, protein + carbs + fat);
+            double[] ref = REFERENCE_SPLIT[Goal.parse(u.getGoal()).ordinal()];
+            q.macro = (Math.abs(protein / total - ref[0]) + Math.abs(carbs / total - ref[1])
+                    + Math.abs(fat / total - ref[2])) / 2;
+            q.budget = plan.weeklyBudget > 0 ? plan.weeklyCost / plan.weeklyBudget : 0;
+            q.variety = meals == 0 ? 0 : distinct.size() / (double) meals;
+            q.workoutMin = sessions == 0 ? 0 : q.workoutMin / sessions;
+            return q;
+        }
+    }
+
+    static final class Summary {
+        final String engine;
+        final long[] latencies;
+        final int[] worst;
+        int plans, declined, overBudget;
+        double allocSum, kcalSum, macroSum, budgetSum, gapSum, varietySum, workoutSum;
+        // per OBJECTIVES: p50Us, allocKB, kcal, macro, budgetGap, variety, workoutMin
+        final double[] values = new double[OBJECTIVES.length];
+        double p99Us, meanBudget;
+        int p95WorstKcal;
+
+        Summary(String engine, int capacity) {
+            this.engine = engine;
+            this.latencies = new long[capacity];
+            this.worst = new int[capacity];
+        }
+
+        void add(long nanos, long bytes, Quality q) {
+            latencies[plans] = nanos;
+            worst[plans] = q.worstKcal;
+            plans++;
+            allocSum += bytes;
+            kcalSum += q.kcal;
+            macroSum += q.macro;
+            budgetSum += q.budget;
+            gapSum += Math.abs(1 - q.budget);
+            if (q.budget > 1) overBudget++;
+            varietySum += q.variety;
+            workoutSum += q.workoutMin;
+        }
+
+        Summary finish() {
+            if (plans == 0) return this;
+            long[] l = Arrays.copyOf(latencies, plans);
+            int[] w = Arrays.copyOf(worst, plans);
+            Arrays.sort(l);
+            Arrays.sort(w);
+            double n = plans;
+            values[0] = l[plans / 2] / 1e3;
+            values[1] = allocSum / n / 1024;
+            values[2] = kcalSum / n;
+            values[3] = macroSum / n;
+            values[4] = gapSum / n;
+            values[5] = varietySum / n;
+            values[6] = workoutSum / n;
+            p99Us = l[Math.min(plans - 1, (int) (plans * 0.99))] / 1e3;
+            p95WorstKcal = w[Math.min(plans - 1, (int) (plans * 0.95))];
+            meanBudget = budgetSum / n;
+            return this;
+        }
+    }
+
+    static List<UserProfile> profiles(int n, long seed, Terms terms) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<UserProfile> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) out.add(ProfileMapper.toUserProfile(dto(rnd, terms)));
+        return out;
+    }
+
+    private static UserInputDTO dto(SplittableRandom rnd, Terms terms) {
+        UserInputDTO d = new UserInputDTO();
+        d.setName("bench");
+        d.setSex(SEX[rnd.nextInt(SEX.length)]);
+        d.setAge(18 + rnd.nextInt(50));
+        d.setHeightCm(150 + rnd.nextInt(45));
+        d.setWeightKg(45 + rnd.nextInt(70));
+        d.setActivityLevel(ACTIVITY[rnd.nextInt(ACTIVITY.length)]);
+        d.setExperience(EXPERIENCE[rnd.nextInt(EXPERIENCE.length)]);
+        d.setGoal(GOAL[rnd.nextInt(GOAL.length)]);
+        d.setVegetarian(rnd.nextInt(4) == 0);
+        d.setVegan(rnd.nextInt(12) == 0);
+        d.setLactoseFree(rnd.nextInt(10) == 0);
+        d.setGlutenFree(rnd.nextInt(10) == 0);
+        d.setHalal(rnd.nextInt(8) == 0);
+        if (rnd.nextInt(4) == 0) d.setAllergies(terms.ingredient(rnd));
+        if (rnd.nextInt(4) == 0) d.setDislikedIngredients(terms.ingredient(rnd));
+        if (rnd.nextInt(3) == 0) d.setPreferredCuisines(terms.cuisine(rnd));
+        d.setHasGym(rnd.nextInt(3) == 0);
+        d.setHasDumbbells(rnd.nextBoolean());
+        d.setHasResistanceBands(rnd.nextInt(3) == 0);
+        d.setWorkoutDaysPerWeek(3 + rnd.nextInt(4));
+        d.setMinutesPerWorkout(20 + 5 * rnd.nextInt(15));
+        d.setDailyFoodBudget(150 + 10 * rnd.nextInt(60));
+        d.setRegion(REGION[rnd.nextInt(REGION.length)]);
+        return d;
+    }
+
+    /** Catalog terms to draw preferences from, each repeated once per meal that uses it. */
+    static final class Terms {
+        final String[] ingredients;
+        final String[] cuisines;
+
+        Terms(CatalogVocabulary vocabulary) {
+            ingredients = weighted(vocabulary.mealCounts(CatalogVocabulary.Kind.INGREDIENT));
+            cuisines = weighted(vocabulary.mealCounts(CatalogVocabulary.Kind.CUISINE));
+        }
+
+        String ingredient(SplittableRandom rnd) {
+            return ingredients[rnd.nextInt(ingredients.length)];
+        }
+
+        String cuisine(SplittableRandom rnd) {
+            return cuisines[rnd.nextInt(cuisines.length)];
+        }
+
+        private static String[] weighted(Map<String, Integer> mealCounts) {
+            List<String> out = new ArrayList<>();
+            mealCounts.forEach((term, meals) -> {
+                for (int i = 0; i < meals; i++) out.add(term);
+            });
+            return out.toArray(new String[0]);
+        }
+    }
+}
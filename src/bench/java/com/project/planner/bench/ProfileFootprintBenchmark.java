@@ -0,0 +1,118 @@
+package com.project.planner.bench;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.model.UserProfile;
+import com.project.planner.service.PackedCohort;
+import com.project.planner.service.ProfileMapper;
+
+/**
+ * ProfileFootprintBenchmark
+ * - Holds N synthetic profiles resident as UserProfile objects and as a PackedCohort, reporting
+ *   retained heap per profile and GC work while each representation is built.
+ * - Checks that every packed profile decodes (directly, and via the DTO) to the same UserProfile as
+ *   the mapper produces from the original DTO.
+ * - java -Xmx4g -cp "target/classes:$(cat target/bench.cp)" com.project.planner.bench.ProfileFootprintBenchmark [n]
+ *   (target/bench.cp from mvn dependency:build-classpath -Dmdep.outputFile=target/bench.cp)
+ */
+public class ProfileFootprintBenchmark {
+
+    private static final String[] SEX = {"MALE", "FEMALE", "female"};
+    private static final String[] ACTIVITY = {"SEDENTARY", "LIGHT", "MODERATE", "ACTIVE", "VERY_ACTIVE"};
+    private static final String[] EXPERIENCE = {"BEGINNER", "INTERMEDIATE", "ADVANCED", null};
+    private static final String[] GOAL = {"LOSE_FAT", "MAINTAIN", "GAIN_MUSCLE"};
+    private static final String[] REGION = {"India", "USA", "UK", "Germany", null};
+    private static final String[] INGREDIENTS = {"peanut", "milk", "egg", "soy", "wheat", "shrimp", "paneer", "tofu"};
+    private static final String[] CUISINES = {"Indian", "Italian", "Mexican", "Chinese", "Mediterranean"};
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        ObjectMapper json = new ObjectMapper();
+
+        long heap = usedHeap(), gc = gcMillis();
+        List<UserProfile> objects = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) objects.add(ProfileMapper.toUserProfile(dto(i)));
+        long objectGc = gcMillis() - gc;
+        long objectBytes = usedHeap() - heap;
+
+        heap = usedHeap();
+        gc = gcMillis();
+        PackedCohort packed = new PackedCohort();
+        for (int i = 0; i < n; i++) packed.add(dto(i));
+        packed.trim();
+        long packedGc = gcMillis() - gc;
+        long packedBytes = usedHeap() - heap;
+
+        int mismatches = 0;
+        for (int i = 0; i < n; i++) {
+            try {
+                String expected = json.writeValueAsString(objects.get(i));
+                if (!expected.equals(json.writeValueAsString(packed.profile(i)))
+                        || !expected.equals(json.writeValueAsString(ProfileMapper.toUserProfile(packed.dto(i))))) mismatches++;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        System.out.printf("profiles=%d%n", n);
+        System.out.printf("UserProfile objects: %.1f MB retained (%d bytes/profile), %d ms GC while building%n",
+                objectBytes / 1e6, objectBytes / n, objectGc);
+        System.out.printf("PackedCohort:        %.1f MB retained (%d bytes/profile, %.1f encoded), %d ms GC while building%n",
+                packedBytes / 1e6, packedBytes / n, (double) packed.dataBytes() / n, packedGc);
+        System.out.printf("round-trip mismatches: %d (kept %d objects)%n", mismatches, objects.size());
+    }
+
+    private static UserInputDTO dto(int i) {
+        SplittableRandom r = new SplittableRandom(i);
+        UserInputDTO d = new UserInputDTO();
+        d.setUserId(r.nextInt(4) == 0 ? null : "user-" + i);
+        d.setName("User " + i);
+        d.setAge(18 + r.nextInt(60));
+        d.setSex(SEX[r.nextInt(SEX.length)]);
+        d.setHeightCm(150 + r.nextInt(500) / 10.0);
+        d.setWeightKg(r.nextInt(10) == 0 ? 45 + r.nextDouble() * 70 : 45 + r.nextInt(700) / 10.0);
+        d.setActivityLevel(ACTIVITY[r.nextInt(ACTIVITY.length)]);
+        d.setExperience(EXPERIENCE[r.nextInt(EXPERIENCE.length)]);
+        d.setGoal(GOAL[r.nextInt(GOAL.length)]);
+        d.setRegion(REGION[r.nextInt(REGION.length)]);
+        d.setVegetarian(r.nextBoolean());
+        d.setVegan(r.nextInt(5) == 0);
+        d.setGlutenFree(r.nextInt(8) == 0);
+        d.setHasDumbbells(r.nextBoolean());
+        d.setHasGym(r.nextInt(3) == 0);
+        d.setAllergies(pick(r, INGREDIENTS, 2));
+        d.setDislikedIngredients(pick(r, INGREDIENTS, 3));
+        d.setPreferredCuisines(pick(r, CUISINES, 2));
+        d.setWorkoutDaysPerWeek(3 + r.nextInt(4));
+        d.setMinutesPerWorkout(20 + 5 * r.nextInt(12));
+        d.setDailyFoodBudget(150 + r.nextInt(40000) / 100.0);
+        return d;
+    }
+
+    private static String pick(SplittableRandom r, String[] from, int max) {
+        StringBuilder sb = new StringBuilder();
+        for (int k = r.nextInt(max + 1); k > 0; k--) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(from[r.nextInt(from.length)]);
+        }
+        return sb.length() > 0 ? sb.toString() : null;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static long gcMillis() {
+        long t = 0;
+        for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) t += Math.max(0, b.getCollectionTime());
+        return t;
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.planner.bench;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import com.project.planner.logic.TdeeStore;
+
+/**
+ * TdeeStoreBenchmark
+ * - Loads USERS users with DAYS daily weigh-ins each (simulated TDEE and noisy scale readings),
+ *   then reports ingest throughput, heap retained by the store, request-time lookup latency
+ *   percentiles and how close the estimates land to the simulated TDEE.
+ * - java -Xmx1g -cp target/classes com.project.planner.bench.TdeeStoreBenchmark [users] [days]
+ */
+public class TdeeStoreBenchmark {
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 28;
+        String[] ids = new String[users];
+        double[] trueTdee = new double[users];
+        double[] weight = new double[users];
+        SplittableRandom rnd = new SplittableRandom(7);
+        for (int u = 0; u < users; u++) {
+            ids[u] = "user-" + u;
+            trueTdee[u] = 1800 + rnd.nextDouble() * 1400;
+            weight[u] = 55 + rnd.nextDouble() * 50;
+        }
+
+        long heapBefore = usedHeap();
+        TdeeStore store = new TdeeStore();
+        long start = System.nanoTime();
+        for (int day = 0; day < days; day++) {
+            for (int u = 0; u < users; u++) {
+                int intake = (int) (trueTdee[u] - 500 + (u % 3) * 400); // deficit, maintenance or surplus
+                if (day == 0) store.recordTarget(ids[u], intake);
+                weight[u] += (intake - trueTdee[u]) / TdeeStore.KCAL_PER_KG;
+                double scale = weight[u] + rnd.nextGaussian() * 0.4; // water weight and scale noise
+                store.recordWeight(ids[u], 20_000 + day, scale, 0);
+            }
+        }
+        long ingestNanos = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+
+        int lookups = 2_000_000;
+        long[] samples = new long[lookups];
+        double sink = 0;
+        for (int round = 0; round < 2; round++) { // first round is JIT warm-up
+            for (int i = 0; i < lookups; i++) {
+                String id = ids[rnd.nextInt(users)];
+                long t = System.nanoTime();
+                sink += store.estimate(id);
+                samples[i] = System.nanoTime() - t;
+            }
+        }
+        Arrays.sort(samples);
+
+        double absErr = 0;
+        for (int u = 0; u < users; u++) absErr += Math.abs(store.estimate(ids[u]) - trueTdee[u]);
+
+        System.out.printf("users=%d days=%d stored=%d%n", users, days, store.size());
+        System.out.printf("ingest: %.1f M logs/s (%.0f ns/log)%n",
+                (double) users * days / ingestNanos * 1000, (double) ingestNanos / ((long) users * days));
+        System.out.printf("heap: %.1f MB (%.0f bytes/user)%n",
+                (heapAfter - heapBefore) / 1e6, (double) (heapAfter - heapBefore) / users);
+        System.out.printf("estimate latency: p50=%dns p99=%dns p99.9=%dns%n",
+                samples[lookups / 2], samples[lookups * 99 / 100], samples[lookups * 999 / 1000]);
+        System.out.printf("mean |estimate - true TDEE| = %.0f kcal (sink %.0f)%n", absErr / users, sink % 10);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,372 @@
+package com.project.planner.cli;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.logic.CatalogVocabulary;
+import com.project.planner.logic.PlannerEngine;
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Exercise;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.logic.PriceTable;
+import com.project.planner.model.UserProfile;
+import com.project.planner.service.PriceService;
+import com.project.planner.service.ProfileFingerprint;
+import com.project.planner.service.ProfileMapper;
+import com.project.planner.service.ProfileNormalizer;
+
+/**
+ * BatchPlanner
+ * - Headless replacement for the old interactive PersonalizedPlanner console app, for offline cohort runs.
+ * - Reads profiles from a file or stdin: CSV with a header row of UserInputDTO field names
+ *   (quote list fields such as "peanut,egg"), or JSONL with one UserInputDTO object per line.
+ * - Plans them on all cores with the same PlannerEngine as the web app and writes one result per
+ *   profile, in input order, as JSONL (full WeeklyPlan) or CSV (summary row).
+ * - Memory stays bounded for millions of profiles: input is read in batches and only a few batches
+ *   per worker are in flight; each batch is encoded by its worker and written with one channel write.
+ * - Output is deterministic for a given --seed: each profile is planned with the engine reseeded from
+ *   the seed and its fingerprint, whichever worker takes it and whatever it planned before.
+ * - Profiles that are identical once canonicalized (ProfileNormalizer) are planned once: the plans of
+ *   up to --dedupe distinct fingerprints are kept and reused for repeats (0 turns this off). A repeat
+ *   planned afresh would get the same plan, so this does not change the output.
+ * - Progress and throughput go to stderr.
+ *
+ * HOW TO RUN (after mvn package):
+ *   java -Dloader.main=com.project.planner.cli.BatchPlanner -cp target/personalized-planner-1.0.0.jar \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher --in profiles.csv --out plans.jsonl
+ *
+ * Options: --in FILE|-  --out FILE|-  --in-format csv|jsonl  --out-format jsonl|csv  --threads N  --batch N
+ *          --dedupe N  --seed N
+ */
+public class BatchPlanner {
+
+    private static final String[] CSV_OUT_HEADER = {"index", "name", "targetCalories", "avgDailyCalories",
+            "weeklyCost", "weeklyBudget", "workoutDays", "workoutMinutes", "distinctMeals"};
+
+    private final Options opts;
+    private final ObjectMapper json = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final PriceTable prices = PriceService.bundled();
+    // typed synonyms map to catalog terms, as in PlannerService.mapToUserProfile
+    private final CatalogVocabulary vocabulary = CatalogVocabulary.bundled(new PlannerEngine().catalog());
+    // one engine per worker: PlannerEngine's Random would otherwise be contended by every core; each
+    // record reseeds it (planSeeded)
+    private final ThreadLocal<PlannerEngine> engines = ThreadLocal.withInitial(() -> {
+        PlannerEngine e = new PlannerEngine();
+        e.setPrices(prices);
+        e.warmUp();
+        return e;
+    });
+    // fingerprint -> plan for repeated profiles; stops growing at opts.dedupe entries
+    private final Map<ProfileFingerprint, WeeklyPlan> plansByProfile = new ConcurrentHashMap<>();
+    private final AtomicLong planned = new AtomicLong();
+    private final AtomicLong deduped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        Options opts;
+        try {
+            opts = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: BatchPlanner --in FILE|- --out FILE|- [--in-format csv|jsonl] "
+                    + "[--out-format jsonl|csv] [--threads N] [--batch N] [--dedupe N] [--seed N]");
+            System.exit(2);
+            return;
+        }
+        new BatchPlanner(opts).run();
+    }
+
+    BatchPlanner(Options opts) {
+        this.opts = opts;
+    }
+
+    void run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(opts.threads);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        progress.scheduleAtFixedRate(() -> report(start, false), 5, 5, TimeUnit.SECONDS);
+
+        try (BufferedReader in = openInput(); WritableByteChannel out = openOutput()) {
+            process(in, out, workers);
+        } finally {
+            workers.shutdownNow();
+            progress.shutdownNow();
+        }
+        report(start, true);
+    }
+
+    private void process(BufferedReader in, WritableByteChannel out, ExecutorService workers)
+            throws IOException, InterruptedException {
+        ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        int maxInFlight = opts.threads * 4;
+
+        String[] header = null;
+        if (opts.inFormat.equals("csv")) {
+            String first = in.readLine();
+            if (first == null) return; // empty input: no header, no rows
+            header = parseCsvLine(first);
+        }
+        if (opts.outFormat.equals("csv")) write(out, (csvRow(CSV_OUT_HEADER) + "\n").getBytes(StandardCharsets.UTF_8));
+
+        List<String> batch = new ArrayList<>(opts.batch);
+        long index = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) continue;
+            batch.add(line);
+            if (batch.size() == opts.batch) {
+                if (inFlight.size() >= maxInFlight) write(out, await(inFlight.poll()));
+                inFlight.add(submit(workers, batch, header, index));
+                index += batch.size();
+                batch = new ArrayList<>(opts.batch);
+            }
+        }
+        if (!batch.isEmpty()) inFlight.add(submit(workers, batch, header, index));
+        while (!inFlight.isEmpty()) write(out, await(inFlight.poll()));
+    }
+
+    private Future<byte[]> submit(ExecutorService workers, List<String> lines, String[] header, long firstIndex) {
+        return workers.submit(() -> {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(lines.size() * 512);
+            for (int i = 0; i < lines.size(); i++) {
+                long index = firstIndex + i;
+                try {
+                    UserInputDTO dto = header != null ? fromCsv(header, lines.get(i)) : json.readValue(lines.get(i), UserInputDTO.class);
+                    UserProfile profile = vocabulary.resolve(ProfileMapper.toUserProfile(dto));
+                    WeeklyPlan plan = plan(profile);
+                    encode(buf, index, profile, plan);
+                    planned.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    encodeError(buf, index, e);
+                }
+            }
+            return buf.toByteArray();
+        });
+    }
+
+    private WeeklyPlan plan(UserProfile profile) {
+        ProfileFingerprint key = ProfileNormalizer.fingerprint(profile);
+        if (opts.dedupe <= 0) return planSeeded(profile, key);
+        WeeklyPlan plan = plansByProfile.get(key);
+        if (plan != null) {
+            deduped.incrementAndGet();
+            return plan;
+        }
+        plan = planSeeded(profile, key);
+        if (plansByProfile.size() < opts.dedupe) plansByProfile.putIfAbsent(key, plan);
+        return plan;
+    }
+
+    private WeeklyPlan planSeeded(UserProfile profile, ProfileFingerprint key) {
+        PlannerEngine engine = engines.get();
+        engine.reseed(opts.seed ^ key.hi() ^ key.lo());
+        return engine.generateWeeklyPlan(profile);
+    }
+
+    // ---------- input ----------
+
+    private BufferedReader openInput() throws IOException {
+        if (opts.in.equals("-")) return new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16);
+        return Files.newBufferedReader(Path.of(opts.in), StandardCharsets.UTF_8);
+    }
+
+    private UserInputDTO fromCsv(String[] header, String line) {
+        String[] cells = parseCsvLine(line);
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int c = 0; c < Math.min(header.length, cells.length); c++) {
+            if (!cells[c].isEmpty()) row.put(header[c].trim(), cells[c]);
+        }
+        return json.convertValue(row, UserInputDTO.class);
+    }
+
+    /** RFC 4180 style: comma separated, double-quoted cells may contain commas and "" escapes. */
+    static String[] parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(ch);
+            }
+        }
+        cells.add(cell.toString());
+        return cells.toArray(new String[0]);
+    }
+
+    // ---------- output ----------
+
+    private WritableByteChannel openOutput() throws IOException {
+        if (opts.out.equals("-")) return Channels.newChannel(new FileOutputStream(FileDescriptor.out));
+        return FileChannel.open(Path.of(opts.out), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void encode(ByteArrayOutputStream buf, long index, UserProfile profile, WeeklyPlan plan) throws IOException {
+        if (opts.outFormat.equals("csv")) {
+            int workoutDays = 0;
+            int minutes = 0;
+            long kcal = 0;
+            Set<String> meals = new HashSet<>();
+            for (DayPlan d : plan.days) {
+                if (!d.restDay) workoutDays++;
+                for (Exercise e : d.workout) minutes += e.estMinutes;
+                for (Meal m : d.meals) meals.add(m.name);
+                kcal += d.totalCalories;
+            }
+            String row = csvRow(String.valueOf(index), profile.getName() == null ? "" : profile.getName(),
+                    String.valueOf(plan.weeklyTargetCalories / 7), String.valueOf(kcal / Math.max(1, plan.days.size())),
+                    String.valueOf(round2(plan.weeklyCost)), String.valueOf(round2(plan.weeklyBudget)),
+                    String.valueOf(workoutDays), String.valueOf(minutes), String.valueOf(meals.size()));
+            buf.write((row + "\n").getBytes(StandardCharsets.UTF_8));
+        } else {
+            Map<String, Object> rec = new LinkedHashMap<>();
+            rec.put("index", index);
+            rec.put("name", profile.getName());
+            rec.put("plan", plan);
+            json.writeValue(buf, rec);
+            buf.write('\n');
+        }
+    }
+
+    private void encodeError(ByteArrayOutputStream buf, long index, Exception e) throws IOException {
+        String msg = String.valueOf(e.getMessage()).replace('\n', ' ');
+        if (opts.outFormat.equals("csv")) {
+            String[] row = new String[CSV_OUT_HEADER.length];
+            Arrays.fill(row, "");
+            row[0] = String.valueOf(index);
+            row[1] = "ERROR: " + msg;
+            buf.write((csvRow(row) + "\n").getBytes(StandardCharsets.UTF_8));
+        } else {
+            Map<String, Object> rec = new LinkedHashMap<>();
+            rec.put("index", index);
+            rec.put("error", msg);
+            json.writeValue(buf, rec);
+            buf.write('\n');
+        }
+    }
+
+    private static String csvRow(String... cells) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) sb.append(',');
+            String c = cells[i];
+            if (c.indexOf(',') >= 0 || c.indexOf('"') >= 0) sb.append('"').append(c.replace("\"", "\"\"")).append('"');
+            else sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static void write(WritableByteChannel out, byte[] bytes) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap(bytes);
+        while (b.hasRemaining()) out.write(b);
+    }
+
+    private static byte[] await(Future<byte[]> f) throws IOException, InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            throw new IOException("batch failed", e.getCause());
+        }
+    }
+
+    private void report(long start, boolean done) {
+        double secs = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        long n = planned.get();
+        System.err.printf("%s %,d planned (%,d repeats reused), %,d failed in %.1fs (%,.0f profiles/s)%n",
+                done ? "done:" : "progress:", n, deduped.get(), failed.get(), secs, n / secs);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    static class Options {
+        String in = "-";
+        String out = "-";
+        String inFormat;
+        String outFormat = "jsonl";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int batch = 512;
+        int dedupe = 10_000;
+        long seed = 42;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String a = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("missing value for " + a);
+                String v = args[++i];
+                switch (a) {
+                    case "--in" -> o.in = v;
+                    case "--out" -> o.out = v;
+                    case "--in-format" -> o.inFormat = v.toLowerCase();
+                    case "--out-format" -> o.outFormat = v.toLowerCase();
+                    case "--threads" -> o.threads = Math.max(1, Integer.parseInt(v));
+                    case "--batch" -> o.batch = Math.max(1, Integer.parseInt(v));
+                    case "--dedupe" -> o.dedupe = Math.max(0, Integer.parseInt(v));
+                    case "--seed" -> o.seed = Long.parseLong(v);
+                    default -> throw new IllegalArgumentException("unknown option " + a);
+                }
+            }
+            if (o.inFormat == null) o.inFormat = o.in.toLowerCase().endsWith(".csv") ? "csv" : "jsonl";
+            if (!o.inFormat.equals("csv") && !o.inFormat.equals("jsonl"))
+                throw new IllegalArgumentException("--in-format must be csv or jsonl");
+            if (!o.outFormat.equals("csv") && !o.outFormat.equals("jsonl"))
+                throw new IllegalArgumentException("--out-format must be csv or jsonl");
+            return o;
+        }
+    }
+}
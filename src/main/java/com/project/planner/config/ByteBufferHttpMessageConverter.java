@@ -0,0 +1,67 @@
+package com.project.planner.config;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes ByteBuffer response bodies (PayloadCache payloads) byte for byte.
+ * - On Tomcat the buffer is appended to the connector's output buffer directly; other containers get
+ *   it in chunks.
+ * - The controller sets Content-Type, and Content-Encoding for gzip bodies. Registered ahead of Jackson,
+ *   which would otherwise write a ByteBuffer as a JSON object.
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+    private static final int CHUNK = 8192;
+
+    public ByteBufferHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ByteBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ByteBuffer request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ByteBuffer body, MediaType contentType) {
+        return (long) body.remaining();
+    }
+
+    @Override
+    protected void writeInternal(ByteBuffer body, HttpOutputMessage outputMessage) throws IOException {
+        write(body, outputMessage.getBody());
+    }
+
+    /** Writes the buffer's remaining bytes, consuming it. */
+    public static void write(ByteBuffer body, OutputStream out) throws IOException {
+        if (out instanceof CoyoteOutputStream coyote) {
+            coyote.write(body);
+            return;
+        }
+        byte[] chunk = new byte[Math.min(CHUNK, body.remaining())];
+        while (body.hasRemaining()) {
+            int n = Math.min(chunk.length, body.remaining());
+            body.get(chunk, 0, n);
+            out.write(chunk, 0, n);
+        }
+    }
+}
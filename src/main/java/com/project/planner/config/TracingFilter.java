@@ -0,0 +1,75 @@
+package com.project.planner.config;
+
+import com.project.planner.logic.Trace;
+import com.project.planner.service.Tracing;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Root span for plan requests (/generate, /api/plan, /api/program, /api/household) when tracing is on.
+ * - The first dispatch runs the controller with the root span current; the async pipeline carries it on.
+ * - The async dispatch that renders the view (or writes the JSON) is a "render" span.
+ * - The trace is finished when the request completes, so it covers rendering and streaming too.
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACE_ATTRIBUTE = TracingFilter.class.getName() + ".trace";
+
+    @Autowired
+    private Tracing tracing;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!tracing.isEnabled()) return true;
+        String path = request.getRequestURI();
+        return !(path.equals("/generate") || path.startsWith("/api/plan") || path.equals("/api/program")
+                || path.equals("/api/household"));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Trace trace = (Trace) request.getAttribute(TRACE_ATTRIBUTE);
+        if (trace != null) {
+            // async dispatch: the pipeline finished, the result is rendered now
+            try (Trace.Scope scope = Trace.activate(trace.root()); Trace.Span render = Trace.span("render")) {
+                chain.doFilter(request, response);
+            }
+            return;
+        }
+
+        trace = tracing.start(request.getMethod() + " " + request.getRequestURI());
+        request.setAttribute(TRACE_ATTRIBUTE, trace);
+        try (Trace.Scope scope = Trace.activate(trace.root())) {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                Trace started = trace;
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    // also called after onError and onTimeout
+                    @Override public void onComplete(AsyncEvent event) { tracing.finish(started); }
+                    @Override public void onTimeout(AsyncEvent event) { }
+                    @Override public void onError(AsyncEvent event) { }
+                    @Override public void onStartAsync(AsyncEvent event) { }
+                });
+            } else {
+                tracing.finish(trace);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.planner.config;
+
+import com.project.planner.service.PayloadCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Static assets under content-hashed URLs.
+ * - Templates link /css and /js files through @{...}, which the encoding filter rewrites to
+ *   e.g. /css/styles-&lt;md5&gt;.css; a changed file gets a new URL, so responses are cached for a year
+ *   and marked immutable (no revalidation on reload).
+ * - HTML/JSON compression is configured in application.properties (server.compression.*).
+ * - Finished plans can be kept encoded (PayloadCache, planner.payload-cache.max-mb, 0 = off); a
+ *   re-served one is written as a ByteBuffer, already gzip-compressed where accepted, which Tomcat
+ *   then leaves alone.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String[] ASSET_DIRS = {"css", "js"};
+    private static final Duration ASSET_MAX_AGE = Duration.ofDays(365);
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : ASSET_DIRS) {
+            registry.addResourceHandler("/" + dir + "/**")
+                    .addResourceLocations("classpath:/static/" + dir + "/")
+                    .setCacheControl(CacheControl.maxAge(ASSET_MAX_AGE).cachePublic().immutable())
+                    .resourceChain(true)
+                    .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ByteBufferHttpMessageConverter());
+    }
+
+    @Bean
+    public PayloadCache payloadCache(@Value("${planner.payload-cache.max-mb:0}") long maxMb) {
+        return new PayloadCache(maxMb * 1024 * 1024);
+    }
+
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.planner.controller;
+
+import com.project.planner.config.ByteBufferHttpMessageConverter;
+import com.project.planner.service.PayloadCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * A page served from PayloadCache. Only on a miss is the named view (a Thymeleaf template) rendered,
+ * into memory; those bytes are cached and written as-is (Tomcat compresses them as for any page). A hit
+ * is written from the cache, gzip-encoded when the client accepts it.
+ * The key must cover everything the page shows besides its source object.
+ */
+public class CachedPageView implements View {
+
+    private final PayloadCache cache;
+    private final String key;
+    private final Object source;
+    private final String viewName;
+    private final ViewResolver resolver;
+
+    public CachedPageView(PayloadCache cache, String key, Object source, String viewName, ViewResolver resolver) {
+        this.cache = cache;
+        this.key = key;
+        this.source = source;
+        this.viewName = viewName;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        PayloadCache.Payload page = cache.get(key, source);
+        if (page == null) {
+            View view = resolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+            if (view == null) throw new IllegalStateException("no view named " + viewName);
+            ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+            view.render(model, request, capture);
+            page = cache.put(key, source,
+                    PayloadCache.Payload.encode(capture.getContentType(), capture.getContentAsByteArray()));
+            write(page, page.body(false), response);
+            return;
+        }
+        boolean gzip = PayloadCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        write(page, cache.serve(key, page, gzip), response);
+    }
+
+    private static void write(PayloadCache.Payload page, ByteBuffer body, HttpServletResponse response) throws IOException {
+        response.setContentType(page.contentType);
+        response.setContentLength(body.remaining());
+        ByteBufferHttpMessageConverter.write(body, response.getOutputStream());
+    }
+}
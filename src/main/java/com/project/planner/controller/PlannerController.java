@@ -1,44 +1,408 @@
 package com.project.planner.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.dto.ProgressLogDTO;
+import com.project.planner.dto.HouseholdInputDTO;
 import com.project.planner.dto.UserInputDTO;
-import com.project.planner.logic.PlannerEngine;
+import com.project.planner.logic.CatalogVocabulary;
+import com.project.planner.logic.FeasibilityCheck;
+import com.project.planner.logic.HouseholdPlanner;
+import com.project.planner.logic.PeriodizationPlanner;
+import com.project.planner.logic.PeriodizationPlanner.TrainingWeek;
+import com.project.planner.logic.TdeeStore;
+import com.project.planner.logic.Trace;
 import com.project.planner.logic.PlannerEngine.WeeklyPlan;
 import com.project.planner.model.UserProfile;
+import com.project.planner.service.AdmissionService;
+import com.project.planner.service.ClusterRouter;
+import com.project.planner.service.InfeasibleProfileException;
+import com.project.planner.service.OverloadedException;
+import com.project.planner.service.PayloadCache;
+import com.project.planner.service.PlanCache;
+import com.project.planner.service.PlanResult;
 import com.project.planner.service.PlannerService;
+import com.project.planner.service.ProfileNormalizer;
+import com.project.planner.service.UnknownTenantException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Controller
 public class PlannerController {
 
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final String[] RELAYED_HEADERS = {HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.RETRY_AFTER};
+
     @Autowired
     private PlannerService plannerService;
 
+    @Autowired
+    private AdmissionService admissionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClusterRouter clusterRouter;
+
+    @Autowired
+    private PayloadCache payloadCache;
+
+    @Autowired
+    private ViewResolver thymeleafViewResolver;
+
     @GetMapping("/")
     public String showForm() {
         return "index";
     }
 
+    /** Renders the plan here, or relays the owning node's page in cluster mode (see ClusterRouter). */
     @PostMapping("/generate")
-    public String generatePlan(UserInputDTO userInputDTO, Model model) {
+    public CompletableFuture<Object> generatePlan(UserInputDTO userInputDTO, Model model, HttpServletRequest request) {
+        UserProfile profile = plannerService.mapToUserProfile(userInputDTO);
+        String owner = route(profile, request);
+        if (owner == null) return renderPlan(profile, model, request);
+        return clusterRouter.forward(owner, "/generate", MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+                        formBody(request), clientId(request))
+                .thenCompose(response -> response != null ? CompletableFuture.completedFuture(relay(response))
+                        : renderPlan(profile, model, request));
+    }
+
+    private CompletableFuture<Object> renderPlan(UserProfile userProfile, Model model, HttpServletRequest request) {
+        // the request thread is released while the pipeline runs; the view renders on completion
+        return admitted(userProfile, request).thenApply(result -> {
+            UserProfile profile = result.getProfile();
+            WeeklyPlan weeklyPlan = result.getPlan();
+
+            model.addAttribute("profile", profile);
+            model.addAttribute("dailyCalories", weeklyPlan.days.size() > 0 ? weeklyPlan.days.get(0).targetCalories : 0);
+            model.addAttribute("dailyBudget", profile.getSchedule().getDailyFoodBudget());
+            model.addAttribute("weeklyBudget", profile.getSchedule().getDailyFoodBudget() * 7);
+            model.addAttribute("weeklyCost", weeklyPlan.weeklyCost);
+            model.addAttribute("weeklyPlan", weeklyPlan);
+            model.addAttribute("shoppingList", result.getShoppingList());
+
+            // besides the plan and its shopping list, the page shows the name and fingerprinted fields
+            // only a shared plan's page can be asked for again
+            if (!payloadCache.isEnabled() || !result.sharedPlan()) return "result";
+            return new CachedPageView(payloadCache, "html:" + result.getProfileFingerprint() + ":" + profile.getName(),
+                    weeklyPlan, "result", thymeleafViewResolver);
+        });
+    }
+
+    @PostMapping("/api/plan")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<?>> generatePlanJson(@RequestBody UserInputDTO userInputDTO,
+                                                                 HttpServletRequest request) throws IOException {
         UserProfile profile = plannerService.mapToUserProfile(userInputDTO);
+        String owner = route(profile, request);
+        if (owner == null) return planJson(profile, request);
+        return clusterRouter.forward(owner, "/api/plan", MediaType.APPLICATION_JSON_VALUE,
+                        objectMapper.writeValueAsBytes(userInputDTO), clientId(request))
+                .thenCompose(response -> response != null ? CompletableFuture.completedFuture(relay(response))
+                        : planJson(profile, request));
+    }
 
-        WeeklyPlan weeklyPlan = plannerService.generateWeeklyPlan(profile);
-        Map<String, Integer> shoppingList = plannerService.aggregateShoppingList(weeklyPlan);
+    /**
+     * Written by Jackson (and compressed by Tomcat): the body carries a fresh plan id, so it is never
+     * served again as-is. GET /api/plan/{planId} caches the saved plan's encoding on first read.
+     */
+    private CompletableFuture<ResponseEntity<?>> planJson(UserProfile profile, HttpServletRequest request) {
+        return admitted(profile, request).thenApply(result -> ResponseEntity.ok().eTag(result.etag()).body(result));
+    }
+
+    /**
+     * Whether any plan can satisfy the profile (eligible meals, calories and protein within budget), with
+     * reasons and suggested relaxations when not. The same check rejects /generate and /api/plan with 422.
+     */
+    @PostMapping("/api/feasibility")
+    @ResponseBody
+    public FeasibilityCheck.Result feasibility(@RequestBody UserInputDTO userInputDTO) {
+        return plannerService.checkFeasibility(plannerService.mapToUserProfile(userInputDTO));
+    }
 
-        model.addAttribute("profile", profile);
-        model.addAttribute("dailyCalories", weeklyPlan.days.size() > 0 ? weeklyPlan.days.get(0).targetCalories : 0);
-        model.addAttribute("dailyBudget", profile.getSchedule().getDailyFoodBudget());
-        model.addAttribute("weeklyBudget", profile.getSchedule().getDailyFoodBudget() * 7);
-        model.addAttribute("weeklyCost", weeklyPlan.weeklyCost);
-        model.addAttribute("weeklyPlan", weeklyPlan);
-        model.addAttribute("shoppingList", shoppingList);
+    /**
+     * Household plan: one shared menu portioned per member, with a merged shopping list. The menu is
+     * planned once, so admission charges the costliest member's estimate rather than the sum.
+     * The menu comes from one catalog, so members of different tenants are rejected with 400.
+     * Not routed in cluster mode (there is no single profile to own it).
+     */
+    @PostMapping("/api/household")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<?>> generateHouseholdPlan(@RequestBody HouseholdInputDTO householdDTO,
+                                                                      HttpServletRequest request) {
+        List<UserInputDTO> input = householdDTO.getMembers();
+        if (input == null || input.isEmpty() || input.size() > HouseholdPlanner.MAX_MEMBERS) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("members: 1.." + HouseholdPlanner.MAX_MEMBERS + " profiles"));
+        }
+        List<UserProfile> members = new ArrayList<>(input.size());
+        double cost = 0;
+        for (UserInputDTO dto : input) {
+            UserProfile profile = plannerService.mapToUserProfile(dto);
+            members.add(profile);
+            cost = Math.max(cost, plannerService.estimateCost(profile));
+        }
+        if (!HouseholdPlanner.sameTenant(members)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                    .body("members: all profiles must name the same tenant (or none)"));
+        }
+        AdmissionService.Permit permit;
+        try (Trace.Span span = Trace.span("controller.admit")) {
+            permit = admissionService.admit(clientId(request), cost);
+        }
+        return plannerService.generateHouseholdPlanAsync(members, householdDTO.getDailyFoodBudget())
+                .whenComplete((r, e) -> permit.release(e != null))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Cluster membership, routing counters, and this node's plan cache hit rate, request coalescing,
+     * encoded payload cache and tenant overlays.
+     */
+    @GetMapping("/api/cluster")
+    @ResponseBody
+    public Map<String, Object> cluster() {
+        Map<String, Object> stats = clusterRouter.stats();
+        PlanCache cache = plannerService.getPlanCache();
+        stats.put("planCacheHits", cache.getHits());
+        stats.put("planCacheMisses", cache.getMisses());
+        stats.put("planCacheSize", cache.size());
+        stats.put("coalescing", plannerService.coalescingStats());
+        stats.put("payloadCache", payloadCache.stats());
+        stats.put("tenants", plannerService.tenantStats());
+        return stats;
+    }
+
+    /**
+     * A saved plan. Its ETag is derived from the profile fingerprint and catalog version, so a client
+     * revalidating with If-None-Match gets 304 from the store lookup alone; nothing is planned here.
+     * A saved plan never changes, so with the payload cache on its JSON is encoded once, on first read.
+     */
+    @GetMapping("/api/plan/{planId}")
+    @ResponseBody
+    public ResponseEntity<?> savedPlan(@PathVariable String planId, WebRequest webRequest) {
+        Optional<PlanResult> found = plannerService.findPlan(planId);
+        if (found.isEmpty()) return ResponseEntity.notFound().build();
+        PlanResult result = found.get();
+        if (webRequest.checkNotModified(result.etag())) return null; // 304 already written
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (!payloadCache.isEnabled()) return ResponseEntity.ok().cacheControl(cacheControl).eTag(result.etag()).body(result);
+
+        PayloadCache.Payload json = payloadCache.get(jsonKey(planId), null);
+        if (json == null) {
+            // first read: kept for the next, written as-is for Tomcat to compress
+            json = payloadCache.put(jsonKey(planId), null, encodeJson(result));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).cacheControl(cacheControl)
+                    .eTag(result.etag()).body(json.body(false));
+        }
+        boolean gzip = PayloadCache.acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        return encoded(json, gzip).cacheControl(cacheControl).eTag(result.etag())
+                .body(payloadCache.serve(jsonKey(planId), json, gzip));
+    }
+
+    /**
+     * Multi-week program as NDJSON, one TrainingWeek per line. Each week is planned just before it is
+     * written and flushed, so clients see week 1 after one week's latency and nothing is buffered.
+     */
+    @PostMapping("/api/program")
+    public ResponseEntity<StreamingResponseBody> generateProgram(@RequestBody UserInputDTO userInputDTO,
+                                                                 @RequestParam(defaultValue = "12") int weeks,
+                                                                 HttpServletRequest request) {
+        UserProfile profile = plannerService.mapToUserProfile(userInputDTO);
+        plannerService.requireFeasible(profile);
+        int n = Math.max(1, Math.min(PeriodizationPlanner.MAX_WEEKS, weeks));
+        AdmissionService.Permit permit = admissionService.admit(clientId(request),
+                plannerService.estimateCost(profile) * n);
+        // the permit holds its concurrency slot until the last week is written; the limit's latency sample
+        // is the mean time to plan one week, not the time the client took to read them
+        StreamingResponseBody body = out -> {
+            long planningNanos = 0;
+            int planned = 0;
+            try (Stream<TrainingWeek> program = plannerService.generateProgram(profile, n)) {
+                for (Iterator<TrainingWeek> it = program.iterator(); it.hasNext(); ) {
+                    long start = System.nanoTime();
+                    TrainingWeek week = it.next();
+                    planningNanos += System.nanoTime() - start;
+                    planned++;
+                    out.write(objectMapper.writeValueAsBytes(week));
+                    out.write('\n');
+                    out.flush();
+                }
+                permit.release(false, planningNanos / Math.max(1, planned));
+            } finally {
+                permit.release(true); // no-op once released
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /** Logs a weigh-in (and optionally the day's average intake) for adaptive calorie targeting. */
+    @PostMapping("/api/progress")
+    @ResponseBody
+    public ResponseEntity<TdeeStore.Estimate> logProgress(@RequestBody ProgressLogDTO log) {
+        if (log.getUserId() == null || log.getUserId().isBlank() || !(log.getWeightKg() > 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate date = log.getDate() != null ? log.getDate() : LocalDate.now();
+        return ResponseEntity.ok(plannerService.logProgress(log.getUserId().trim(), date,
+                log.getWeightKg(), log.getIntakeKcal()));
+    }
+
+    @GetMapping("/api/progress/{userId}")
+    @ResponseBody
+    public ResponseEntity<TdeeStore.Estimate> progress(@PathVariable String userId) {
+        TdeeStore.Estimate estimate = plannerService.progress(userId);
+        return estimate != null ? ResponseEntity.ok(estimate) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Autocomplete for the allergies/dislikes (kind=ingredient) and cuisines (kind=cuisine) fields.
+     * q is what has been typed of the current value; each suggestion's id is the catalog term to submit.
+     * Answers depend only on the catalog, so browsers and proxies may reuse them briefly.
+     */
+    @GetMapping("/api/suggest")
+    @ResponseBody
+    public ResponseEntity<List<CatalogVocabulary.Suggestion>> suggest(@RequestParam(defaultValue = "ingredient") String kind,
+                                                                      @RequestParam(defaultValue = "") String q,
+                                                                      @RequestParam(defaultValue = "8") int limit) {
+        CatalogVocabulary.Kind k = CatalogVocabulary.Kind.parse(kind);
+        if (k == null) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(10)).cachePublic())
+                .body(plannerService.suggest(k, q, limit));
+    }
+
+    /** Shadow-mode comparison of the candidate engine against production; 404 when shadow mode is off. */
+    @GetMapping("/api/shadow")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> shadow() {
+        Map<String, Object> stats = plannerService.shadowStats();
+        return stats != null ? ResponseEntity.ok(stats) : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(InfeasibleProfileException.class)
+    public ResponseEntity<FeasibilityCheck.Result> infeasible(InfeasibleProfileException e) {
+        return ResponseEntity.unprocessableEntity().contentType(MediaType.APPLICATION_JSON).body(e.getResult());
+    }
+
+    @ExceptionHandler(UnknownTenantException.class)
+    public ResponseEntity<String> unknownTenant(UnknownTenantException e) {
+        return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<String> overloaded(OverloadedException e) {
+        HttpStatus status = e.getReason() == OverloadedException.Reason.RATE_LIMITED
+                ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    private CompletableFuture<PlanResult> admitted(UserProfile profile, HttpServletRequest request) {
+        try (Trace.Span span = Trace.span("controller.feasibility")) {
+            plannerService.requireFeasible(profile);
+        }
+        AdmissionService.Permit permit;
+        try (Trace.Span span = Trace.span("controller.admit")) {
+            double cost = plannerService.estimateCost(profile);
+            permit = admissionService.admitRated(clientId(request), cost);
+        }
+        // the concurrency limit is only taken where a plan is computed, not for cache hits or coalesced waiters
+        return plannerService.generateWeeklyPlanAsync(profile, permit::limit)
+                .whenComplete((r, e) -> permit.release(e != null));
+    }
+
+    private PayloadCache.Payload encodeJson(PlanResult result) {
+        try {
+            return PayloadCache.Payload.encode(MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsBytes(result));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String jsonKey(String planId) {
+        return "json:" + planId;
+    }
+
+    /** Headers for a payload body; it varies with Accept-Encoding, and Tomcat won't compress it again. */
+    private static ResponseEntity.BodyBuilder encoded(PayloadCache.Payload payload, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(payload.contentType))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        return gzip ? builder.header(HttpHeaders.CONTENT_ENCODING, "gzip") : builder;
+    }
+
+    /** Owning node to forward to, or null to plan on this node. */
+    private String route(UserProfile profile, HttpServletRequest request) {
+        if (!clusterRouter.isEnabled()) return null;
+        return clusterRouter.route(ProfileNormalizer.fingerprint(profile),
+                request.getHeader(ClusterRouter.FORWARDED_HEADER) != null);
+    }
+
+    private ResponseEntity<Object> relay(HttpResponse<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : RELAYED_HEADERS) response.headers().firstValue(name).ifPresent(v -> headers.set(name, v));
+        return ResponseEntity.status(response.statusCode()).headers(headers).body(response.body());
+    }
+
+    private static byte[] formBody(HttpServletRequest request) {
+        StringBuilder sb = new StringBuilder();
+        request.getParameterMap().forEach((name, values) -> {
+            for (String v : values) {
+                if (sb.length() > 0) sb.append('&');
+                sb.append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                        .append(URLEncoder.encode(v, StandardCharsets.UTF_8));
+            }
+        });
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
 
-        return "result";
+    /**
+     * Rate-limiting key: the caller's address. X-Client-Id is only taken from a cluster peer forwarding
+     * the request, so a client can't get a fresh token bucket by sending a new id each time.
+     */
+    private String clientId(HttpServletRequest request) {
+        String id = request.getHeader(CLIENT_HEADER);
+        if (id != null && !id.isBlank()
+                && clusterRouter.forwardedByPeer(request.getHeader(ClusterRouter.FORWARDED_HEADER), request.getRemoteAddr())) {
+            return id;
+        }
+        return request.getRemoteAddr();
     }
 }
@@ -0,0 +1,16 @@
+package com.project.planner.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HouseholdInputDTO {
+    private List<UserInputDTO> members = new ArrayList<>();
+    // shared daily food budget; 0 = sum of the members' budgets
+    private double dailyFoodBudget;
+
+    public List<UserInputDTO> getMembers() { return members; }
+    public void setMembers(List<UserInputDTO> members) { this.members = members; }
+
+    public double getDailyFoodBudget() { return dailyFoodBudget; }
+    public void setDailyFoodBudget(double dailyFoodBudget) { this.dailyFoodBudget = dailyFoodBudget; }
+}
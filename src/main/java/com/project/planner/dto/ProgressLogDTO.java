@@ -0,0 +1,22 @@
+package com.project.planner.dto;
+
+import java.time.LocalDate;
+
+public class ProgressLogDTO {
+    private String userId;
+    private LocalDate date;
+    private double weightKg;
+    private double intakeKcal;
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public double getWeightKg() { return weightKg; }
+    public void setWeightKg(double weightKg) { this.weightKg = weightKg; }
+
+    public double getIntakeKcal() { return intakeKcal; }
+    public void setIntakeKcal(double intakeKcal) { this.intakeKcal = intakeKcal; }
+}
@@ -1,6 +1,7 @@
 package com.project.planner.dto;
 
 public class UserInputDTO {
+    private String userId;
     private String name;
     private int age;
     private String sex;
@@ -31,9 +32,13 @@ public class UserInputDTO {
     private double dailyFoodBudget;
 
     private String region;
+    private String tenant;
 
     // ✅ Getters and Setters (generate or use Lombok later)
 
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -108,4 +113,7 @@ public class UserInputDTO {
 
     public String getRegion() { return region; }
     public void setRegion(String region) { this.region = region; }
+
+    public String getTenant() { return tenant; }
+    public void setTenant(String tenant) { this.tenant = tenant; }
 }
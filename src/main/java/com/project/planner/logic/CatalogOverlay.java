@@ -0,0 +1,155 @@
+package com.project.planner.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.project.planner.logic.PlannerEngine.Meal;
+
+/**
+ * CatalogOverlay
+ * - One tenant's changes to the shared meal catalog: added dishes, overrides (a base meal replaced by
+ *   the tenant's version, e.g. its own price or recipe) and tombstones (base meals the tenant removed).
+ * - Holds only the delta; the base catalog, its priced copies and its pools are shared by every
+ *   tenant. PlannerEngine composes a tenant's pools per request from the base pools' sorted
+ *   orderings (MealPools.overlay), so nothing proportional to the catalog is kept per tenant.
+ * - Tenant dishes and overrides carry the tenant's own prices; region price tables do not re-cost them.
+ * - Parsed from CSV, one change per line ('#' comments):
+ *   add|override,name,cuisine,vegetarian,vegan,kcal,protein,carbs,fat,cost,halal,lactoseFree,glutenFree,ingredient;...
+ *   remove,name
+ *   Override and remove must name a base meal, add must not (names match case-insensitively).
+ * Immutable and Spring-free.
+ */
+public final class CatalogOverlay {
+
+    private static final int MEAL_CELLS = 14;
+
+    public final String tenant;
+    private final List<Meal> extras;          // additions and overrides, in file order
+    private final Set<String> hidden;         // keys of base meals removed or overridden
+    private final int added, overridden, removed;
+
+    private CatalogOverlay(String tenant, List<Meal> extras, Set<String> hidden, int added, int overridden, int removed) {
+        this.tenant = tenant;
+        this.extras = List.copyOf(extras);
+        this.hidden = Set.copyOf(hidden);
+        this.added = added;
+        this.overridden = overridden;
+        this.removed = removed;
+    }
+
+    /**
+     * @param tenant canonical tenant id (see ProfileNormalizer.token)
+     * @param base   the catalog the overlay applies to, for validating names
+     */
+    public static CatalogOverlay parse(String tenant, Reader in, List<Meal> base) throws IOException {
+        Set<String> baseNames = new HashSet<>();
+        for (Meal m : base) baseNames.add(key(m.name));
+        Map<String, Meal> extras = new HashMap<>();
+        List<Meal> ordered = new ArrayList<>();
+        Set<String> hidden = new HashSet<>();
+        int added = 0, overridden = 0, removed = 0;
+        BufferedReader lines = new BufferedReader(in);
+        String line;
+        int n = 0;
+        while ((line = lines.readLine()) != null) {
+            n++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] cells = trimmed.split(",", -1);
+            String op = cells[0].trim().toLowerCase(Locale.ROOT);
+            String name = cells.length > 1 ? cells[1].trim() : "";
+            String k = key(name);
+            if (name.isEmpty()) throw new IOException(tenant + " line " + n + ": missing meal name");
+            if (extras.containsKey(k) || hidden.contains(k)) {
+                throw new IOException(tenant + " line " + n + ": '" + name + "' changed twice");
+            }
+            switch (op) {
+                case "remove":
+                    if (cells.length != 2) throw new IOException(tenant + " line " + n + ": expected remove,name");
+                    if (!baseNames.contains(k)) throw new IOException(tenant + " line " + n + ": no base meal '" + name + "'");
+                    hidden.add(k);
+                    removed++;
+                    break;
+                case "add":
+                case "override":
+                    if (op.equals("add") == baseNames.contains(k)) {
+                        throw new IOException(tenant + " line " + n + ": " + (op.equals("add")
+                                ? "'" + name + "' is a base meal; use override" : "no base meal '" + name + "'"));
+                    }
+                    Meal m = meal(cells, tenant, n);
+                    extras.put(k, m);
+                    ordered.add(m);
+                    if (op.equals("add")) {
+                        added++;
+                    } else {
+                        hidden.add(k);
+                        overridden++;
+                    }
+                    break;
+                default:
+                    throw new IOException(tenant + " line " + n + ": unknown change '" + op + "' (add, override, remove)");
+            }
+        }
+        return new CatalogOverlay(tenant, ordered, hidden, added, overridden, removed);
+    }
+
+    /** Whether a base catalog meal is served to this tenant as is. */
+    public boolean keeps(Meal base) {
+        return !hidden.contains(key(base.name));
+    }
+
+    /** Tenant dishes and overridden meals, in file order. */
+    public List<Meal> extras() {
+        return extras;
+    }
+
+    /** Number of changes, which is what the overlay's memory is proportional to. */
+    public int size() {
+        return added + overridden + removed;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("added", added);
+        out.put("overridden", overridden);
+        out.put("removed", removed);
+        return out;
+    }
+
+    private static Meal meal(String[] c, String tenant, int line) throws IOException {
+        if (c.length != MEAL_CELLS) {
+            throw new IOException(tenant + " line " + line + ": expected " + MEAL_CELLS + " cells, got " + c.length);
+        }
+        try {
+            String[] ingredients = c[13].split(";");
+            for (int i = 0; i < ingredients.length; i++) ingredients[i] = ingredients[i].trim().toLowerCase(Locale.ROOT);
+            Meal m = Meal.of(c[1].trim(), c[2].trim(), bool(c[3]), bool(c[4]), Integer.parseInt(c[5].trim()),
+                    Integer.parseInt(c[6].trim()), Integer.parseInt(c[7].trim()), Integer.parseInt(c[8].trim()),
+                    Double.parseDouble(c[9].trim()), bool(c[10]), bool(c[11]), bool(c[12]), ingredients);
+            if (m.calories <= 0 || m.cost < 0) throw new IOException(tenant + " line " + line + ": kcal must be > 0, cost >= 0");
+            return m;
+        } catch (IllegalArgumentException e) { // includes NumberFormatException
+            throw new IOException(tenant + " line " + line + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean bool(String s) {
+        String t = s.trim().toLowerCase(Locale.ROOT);
+        if (t.equals("true")) return true;
+        if (t.equals("false")) return false;
+        throw new IllegalArgumentException("expected true or false, got '" + s + "'");
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
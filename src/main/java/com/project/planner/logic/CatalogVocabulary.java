@@ -0,0 +1,221 @@
+package com.project.planner.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.model.DietPreference;
+import com.project.planner.model.UserProfile;
+import com.project.planner.service.ProfileNormalizer;
+
+/**
+ * CatalogVocabulary
+ * - The ingredients and cuisines of a catalog snapshot, for autocomplete and for mapping typed values
+ *   onto the exact tokens ingredientsOk/cuisineOk compare against.
+ * - Each term is reachable by its own name, by the later words of a multi-word name ("fruit" finds
+ *   "seasonal fruit") and by synonyms from a "kind,synonym,term" CSV (bundled: SYNONYMS).
+ * - Suggestions rank by how many catalog meals use the term, then own name before synonym before
+ *   word, then alphabetically; one suggestion per term.
+ * Immutable and Spring-free.
+ */
+public final class CatalogVocabulary {
+
+    public static final String SYNONYMS = "/catalog/synonyms.csv";
+
+    public enum Kind {
+        INGREDIENT, CUISINE;
+
+        /** Case-insensitive; null for unknown. */
+        public static Kind parse(String s) {
+            if (s == null) return null;
+            for (Kind k : values()) if (k.name().equalsIgnoreCase(s.trim())) return k;
+            return null;
+        }
+    }
+
+    /** One autocomplete answer: {@code id} is the catalog token to submit, {@code match} the name that matched. */
+    public static final class Suggestion {
+        public final String id;
+        public final String match;
+        public final String kind;
+        public final int meals;
+
+        Suggestion(String id, String match, Kind kind, int meals) {
+            this.id = id;
+            this.match = match;
+            this.kind = kind.name().toLowerCase(Locale.ROOT);
+            this.meals = meals;
+        }
+    }
+
+    private final Map<Kind, Terms> terms;
+
+    private CatalogVocabulary(Map<Kind, Terms> terms) {
+        this.terms = terms;
+    }
+
+    /** Vocabulary of {@code catalog} with the bundled synonyms. */
+    public static CatalogVocabulary bundled(List<Meal> catalog) {
+        try (InputStream in = CatalogVocabulary.class.getResourceAsStream(SYNONYMS)) {
+            if (in == null) throw new IllegalStateException(SYNONYMS + " missing from the class path");
+            return of(catalog, new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static CatalogVocabulary of(List<Meal> catalog, Reader synonyms) throws IOException {
+        Map<String, Integer> ingredients = new HashMap<>(), cuisines = new HashMap<>();
+        for (Meal m : catalog) {
+            for (String i : m.ingredients) ingredients.merge(ProfileNormalizer.token(i), 1, Integer::sum);
+            cuisines.merge(m.cuisineKey, 1, Integer::sum);
+        }
+        Map<Kind, Map<String, String>> aliases = parseSynonyms(synonyms);
+        Map<Kind, Terms> terms = new LinkedHashMap<>();
+        terms.put(Kind.INGREDIENT, new Terms(Kind.INGREDIENT, ingredients, aliases.get(Kind.INGREDIENT)));
+        terms.put(Kind.CUISINE, new Terms(Kind.CUISINE, cuisines, aliases.get(Kind.CUISINE)));
+        return new CatalogVocabulary(terms);
+    }
+
+    /** Up to {@code limit} (at most PrefixIndex.MAX_RESULTS) terms for what the user has typed so far. */
+    public List<Suggestion> suggest(Kind kind, String typed, int limit) {
+        String prefix = ProfileNormalizer.token(typed);
+        if (prefix == null) return List.of();
+        Terms t = terms.get(kind);
+        int[] ids = t.index.complete(prefix, limit);
+        List<Suggestion> out = new ArrayList<>(ids.length);
+        for (int id : ids) out.add(t.suggestions[id]);
+        return out;
+    }
+
+    /** The catalog term for a typed name or synonym, or null if the catalog has none. */
+    public String canonical(Kind kind, String typed) {
+        String key = ProfileNormalizer.token(typed);
+        return key == null ? null : terms.get(kind).exact.get(key);
+    }
+
+    /**
+     * Replaces synonyms in the profile's allergies, dislikes and cuisines with catalog terms, in place.
+     * Values the catalog does not know are kept: an allergy to something no meal contains is harmless.
+     */
+    public UserProfile resolve(UserProfile u) {
+        DietPreference d = u.getDiet();
+        resolve(Kind.INGREDIENT, d.getAllergies());
+        resolve(Kind.INGREDIENT, d.getDislikedIngredients());
+        resolve(Kind.CUISINE, d.getPreferredCuisines());
+        return u;
+    }
+
+    private void resolve(Kind kind, Set<String> values) {
+        if (values.isEmpty()) return;
+        Set<String> resolved = new TreeSet<>();
+        for (String v : values) {
+            String c = canonical(kind, v);
+            resolved.add(c != null ? c : v);
+        }
+        values.clear();
+        values.addAll(resolved);
+    }
+
+    /** The catalog terms of {@code kind} with the number of meals using each, most used first. */
+    public Map<String, Integer> mealCounts(Kind kind) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        terms.get(kind).mealCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> out.put(e.getKey(), e.getValue()));
+        return out;
+    }
+
+    public int termCount(Kind kind) {
+        return terms.get(kind).mealCounts.size();
+    }
+
+    public int nodeCount(Kind kind) {
+        return terms.get(kind).index.nodeCount();
+    }
+
+    private static Map<Kind, Map<String, String>> parseSynonyms(Reader in) throws IOException {
+        Map<Kind, Map<String, String>> out = new HashMap<>();
+        for (Kind k : Kind.values()) out.put(k, new HashMap<>());
+        BufferedReader lines = new BufferedReader(in);
+        String line;
+        int n = 0;
+        while ((line = lines.readLine()) != null) {
+            n++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] cells = trimmed.split(",");
+            Kind kind = cells.length == 3 ? Kind.parse(cells[0]) : null;
+            if (kind == null) throw new IOException("line " + n + ": expected ingredient|cuisine,synonym,term");
+            out.get(kind).put(ProfileNormalizer.token(cells[1]), ProfileNormalizer.token(cells[2]));
+        }
+        return out;
+    }
+
+    /** One kind's terms, ranked entries and the index over their keys. */
+    private static final class Terms {
+        final Map<String, Integer> mealCounts;
+        final Map<String, String> exact = new HashMap<>();
+        final Suggestion[] suggestions;
+        final PrefixIndex index;
+
+        Terms(Kind kind, Map<String, Integer> mealCounts, Map<String, String> synonyms) {
+            this.mealCounts = Map.copyOf(mealCounts);
+            List<Key> keys = new ArrayList<>();
+            for (String term : mealCounts.keySet()) {
+                keys.add(new Key(term, term, 0));
+                exact.put(term, term);
+                String[] words = term.split(" ");
+                for (int w = 1; w < words.length; w++) {
+                    keys.add(new Key(String.join(" ", List.of(words).subList(w, words.length)), term, 2));
+                }
+            }
+            synonyms.forEach((synonym, term) -> {
+                if (!mealCounts.containsKey(term) || exact.containsKey(synonym)) return; // stale, or shadows a term
+                keys.add(new Key(synonym, term, 1));
+                exact.put(synonym, term);
+            });
+            keys.sort(Comparator.<Key>comparingInt(k -> -mealCounts.get(k.term))
+                    .thenComparingInt(k -> k.type)
+                    .thenComparing(k -> k.key));
+
+            List<String> names = new ArrayList<>(keys.size());
+            int[] targets = new int[keys.size()];
+            Map<String, Integer> termIds = new HashMap<>();
+            suggestions = new Suggestion[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                Key k = keys.get(i);
+                names.add(k.key);
+                targets[i] = termIds.computeIfAbsent(k.term, t -> termIds.size());
+                suggestions[i] = new Suggestion(k.term, k.key, kind, mealCounts.get(k.term));
+            }
+            index = new PrefixIndex(names, targets);
+        }
+    }
+
+    private static final class Key {
+        final String key;
+        final String term;
+        final int type; // 0 own name, 1 synonym, 2 later word of the name
+
+        Key(String key, String term, int type) {
+            this.key = key;
+            this.term = term;
+            this.type = type;
+        }
+    }
+}
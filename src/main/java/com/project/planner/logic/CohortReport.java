@@ -0,0 +1,146 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+
+/**
+ * CohortReport
+ * - Mergeable accumulator of ingredient totals, cost and per-day demand across many WeeklyPlans.
+ * - Each worker thread fills its own report; reports are combined with {@link #merge(CohortReport)}.
+ * - Plans are consumed one at a time, so a cohort never has to be resident in memory.
+ */
+public class CohortReport {
+
+    public static final int DAYS = 7;
+
+    // plans are pulled from a lazy source in small fixed batches, bounding what is in flight per worker
+    private static final int BATCH = 256;
+
+    private final Map<String, int[]> ingredientByDay = new HashMap<>();
+    private final long[] caloriesByDay = new long[DAYS];
+    private final double[] costByDay = new double[DAYS];
+    private long plans;
+    private double totalCost;
+
+    /** Reduces a stream of plans in parallel using one accumulator per worker. */
+    public static CohortReport of(Stream<WeeklyPlan> plans) {
+        return plans.parallel().collect(collector());
+    }
+
+    /** Reduces a lazy source of plans (batch run, plan store cursor) without materializing it. */
+    public static CohortReport of(Iterator<WeeklyPlan> plans) {
+        return of(plans, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Each worker pulls fixed-size batches from the shared iterator into its own report, so at most
+     * workers * BATCH plans are in flight however large the cohort is.
+     */
+    public static CohortReport of(Iterator<WeeklyPlan> plans, int workers) {
+        List<CompletableFuture<CohortReport>> parts = new ArrayList<>();
+        for (int w = 0; w < Math.max(1, workers); w++) {
+            parts.add(CompletableFuture.supplyAsync(() -> drain(plans)));
+        }
+        CohortReport total = new CohortReport();
+        for (CompletableFuture<CohortReport> part : parts) total.merge(part.join());
+        return total;
+    }
+
+    private static CohortReport drain(Iterator<WeeklyPlan> source) {
+        CohortReport report = new CohortReport();
+        List<WeeklyPlan> batch = new ArrayList<>(BATCH);
+        while (true) {
+            synchronized (source) {
+                while (batch.size() < BATCH && source.hasNext()) batch.add(source.next());
+            }
+            if (batch.isEmpty()) return report;
+            for (WeeklyPlan p : batch) report.add(p);
+            batch.clear();
+        }
+    }
+
+    public static Collector<WeeklyPlan, CohortReport, CohortReport> collector() {
+        return Collector.of(CohortReport::new, CohortReport::add, CohortReport::merge,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    public CohortReport add(WeeklyPlan plan) {
+        if (plan == null) return this;
+        plans++;
+        for (int day = 0; day < Math.min(DAYS, plan.days.size()); day++) {
+            DayPlan d = plan.days.get(day);
+            caloriesByDay[day] += d.totalCalories;
+            costByDay[day] += d.cost;
+            for (Meal m : d.meals) {
+                for (String ing : m.ingredients) ingredientByDay.computeIfAbsent(ing, k -> new int[DAYS])[day]++;
+            }
+        }
+        totalCost += plan.weeklyCost;
+        return this;
+    }
+
+    public CohortReport merge(CohortReport other) {
+        plans += other.plans;
+        totalCost += other.totalCost;
+        for (int day = 0; day < DAYS; day++) {
+            caloriesByDay[day] += other.caloriesByDay[day];
+            costByDay[day] += other.costByDay[day];
+        }
+        other.ingredientByDay.forEach((ing, curve) -> {
+            int[] mine = ingredientByDay.get(ing);
+            if (mine == null) {
+                ingredientByDay.put(ing, curve.clone());
+            } else {
+                for (int day = 0; day < DAYS; day++) mine[day] += curve[day];
+            }
+        });
+        return this;
+    }
+
+    // ---------- results ----------
+
+    public long getPlans() { return plans; }
+
+    public double getTotalCost() { return round2(totalCost); }
+
+    /** Ingredient -> number of meal servings using it, same unit as PlannerService.aggregateShoppingList. */
+    public Map<String, Integer> getIngredientTotals() {
+        Map<String, Integer> totals = new HashMap<>();
+        ingredientByDay.forEach((ing, curve) -> {
+            int sum = 0;
+            for (int c : curve) sum += c;
+            totals.put(ing, sum);
+        });
+        return totals;
+    }
+
+    /** Ingredient -> servings needed on each day of the week (index 0 = Day 1). */
+    public Map<String, int[]> getIngredientDemandByDay() {
+        Map<String, int[]> copy = new HashMap<>();
+        ingredientByDay.forEach((ing, curve) -> copy.put(ing, curve.clone()));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    public long[] getCaloriesByDay() { return caloriesByDay.clone(); }
+
+    public double[] getCostByDay() {
+        double[] out = new double[DAYS];
+        for (int day = 0; day < DAYS; day++) out[day] = round2(costByDay[day]);
+        return out;
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+}
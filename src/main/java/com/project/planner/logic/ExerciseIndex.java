@@ -0,0 +1,232 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.project.planner.logic.PlannerEngine.Exercise;
+
+/**
+ * ExerciseIndex
+ * - Immutable index of the exercise catalog by equipment mask x muscle group x level, plus the
+ *   Cardio/Core "filler" exercises of each equipment mask grouped by duration.
+ * - Every lookup is an array access, so picking an exercise costs the same for 20 or 20,000 entries.
+ * - For each mask it also precomputes which filler-minute totals are reachable and with how few
+ *   exercises. fill() answers from that table in O(1); when a day has already used up fillers the
+ *   table's answer needs, it runs a bounded DP whose size depends on the filler durations and the
+ *   day's free slots, never on the catalog size.
+ * - Equipment masks are PlannerEngine.equipmentMask values (gym | dumbbells | bands).
+ */
+public class ExerciseIndex {
+
+    public static final String[] GROUPS = {"Push", "Pull", "Legs", "Full Body", "Cardio", "Core"};
+    public static final String[] LEVELS = {"BEGINNER", "INTERMEDIATE", "ADVANCED"};
+    public static final int ANY_LEVEL = LEVELS.length;
+
+    /** Longest filler total the solver tables cover. */
+    public static final int MAX_FILL_MINUTES = 240;
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private static final int MASKS = 1 << 3;
+    private static final Exercise[] NONE = new Exercise[0];
+
+    // [mask][group][level or ANY_LEVEL]
+    private final Exercise[][][][] byGroup = new Exercise[MASKS][GROUPS.length][LEVELS.length + 1][];
+    // [mask] -> distinct filler durations, ascending, and the fillers for each of them
+    private final int[][] fillerMinutes = new int[MASKS][];
+    private final Exercise[][][] fillers = new Exercise[MASKS][][];
+    // [mask][minutes] -> fewest fillers summing exactly to minutes, and the duration index of the last one
+    private final int[][] fillCount = new int[MASKS][];
+    private final int[][] fillLast = new int[MASKS][];
+    private final int[] poolSize = new int[MASKS];
+    private final Map<String, Exercise> byName = new HashMap<>();
+
+    public ExerciseIndex(List<Exercise> catalog) {
+        for (Exercise e : catalog) byName.putIfAbsent(e.name, e);
+        for (int mask = 0; mask < MASKS; mask++) {
+            List<List<List<Exercise>>> groups = new ArrayList<>();
+            for (int g = 0; g < GROUPS.length; g++) {
+                List<List<Exercise>> levels = new ArrayList<>();
+                for (int l = 0; l <= LEVELS.length; l++) levels.add(new ArrayList<>());
+                groups.add(levels);
+            }
+            TreeMap<Integer, List<Exercise>> byMinutes = new TreeMap<>();
+            for (Exercise e : catalog) {
+                if (!usable(e, mask)) continue;
+                poolSize[mask]++;
+                int g = groupId(e.muscleGroup);
+                if (g < 0) continue;
+                groups.get(g).get(ANY_LEVEL).add(e);
+                int l = levelId(e.level);
+                if (l >= 0) groups.get(g).get(l).add(e);
+                if (isFiller(g)) byMinutes.computeIfAbsent(e.estMinutes, k -> new ArrayList<>()).add(e);
+            }
+            for (int g = 0; g < GROUPS.length; g++) {
+                for (int l = 0; l <= LEVELS.length; l++) byGroup[mask][g][l] = groups.get(g).get(l).toArray(NONE);
+            }
+            fillerMinutes[mask] = byMinutes.keySet().stream().mapToInt(Integer::intValue).filter(m -> m > 0).toArray();
+            fillers[mask] = new Exercise[fillerMinutes[mask].length][];
+            for (int i = 0; i < fillerMinutes[mask].length; i++) {
+                fillers[mask][i] = byMinutes.get(fillerMinutes[mask][i]).toArray(NONE);
+            }
+            solveFills(mask);
+        }
+    }
+
+    /** Min-count change-making over the mask's filler durations, for every total up to MAX_FILL_MINUTES. */
+    private void solveFills(int mask) {
+        int[] minutes = fillerMinutes[mask];
+        int[] count = new int[MAX_FILL_MINUTES + 1];
+        int[] last = new int[MAX_FILL_MINUTES + 1];
+        Arrays.fill(count, UNREACHABLE);
+        count[0] = 0;
+        for (int x = 1; x <= MAX_FILL_MINUTES; x++) {
+            for (int i = 0; i < minutes.length && minutes[i] <= x; i++) {
+                int prev = count[x - minutes[i]];
+                if (prev != UNREACHABLE && prev + 1 < count[x]) {
+                    count[x] = prev + 1;
+                    last[x] = i;
+                }
+            }
+        }
+        fillCount[mask] = count;
+        fillLast[mask] = last;
+    }
+
+    /** Same rules PlannerEngine has always used for the "required" column. */
+    public static boolean usable(Exercise e, int mask) {
+        boolean gym = (mask & 1) != 0;
+        switch (e.required) {
+            case "gym":
+                return gym;
+            case "dumbbells":
+                return (mask & 1 << 1) != 0 || gym;
+            case "bands":
+                return (mask & 1 << 2) != 0 || gym;
+            default:
+                return true;
+        }
+    }
+
+    public static int groupId(String group) {
+        for (int g = 0; g < GROUPS.length; g++) if (GROUPS[g].equals(group)) return g;
+        return -1;
+    }
+
+    /** BEGINNER when unset, as the engine always assumed; -1 for unknown levels. */
+    public static int levelId(String level) {
+        if (level == null) return 0;
+        for (int l = 0; l < LEVELS.length; l++) if (LEVELS[l].equalsIgnoreCase(level)) return l;
+        return -1;
+    }
+
+    static boolean isFiller(int group) {
+        return GROUPS[group].equals("Cardio") || GROUPS[group].equals("Core");
+    }
+
+    /** Exercises of the group at the level, or of any level if none match (the engine's fallback). */
+    public Exercise[] candidates(int mask, int group, int level) {
+        Exercise[] atLevel = level >= 0 ? byGroup[mask][group][level] : NONE;
+        return atLevel.length > 0 ? atLevel : byGroup[mask][group][ANY_LEVEL];
+    }
+
+    public Exercise named(String name, int mask) {
+        Exercise e = byName.get(name);
+        return e != null && usable(e, mask) ? e : null;
+    }
+
+    public int[] fillerMinutes(int mask) {
+        return fillerMinutes[mask];
+    }
+
+    /** Fewest fillers whose minutes sum to exactly {@code minutes}, or UNREACHABLE. O(1). */
+    public int fillCount(int mask, int minutes) {
+        return minutes >= 0 && minutes <= MAX_FILL_MINUTES ? fillCount[mask][minutes] : UNREACHABLE;
+    }
+
+    /** Duration index of one filler in the fewest-fillers solution for {@code minutes}. */
+    public int fillLast(int mask, int minutes) {
+        return fillLast[mask][minutes];
+    }
+
+    public Exercise[] fillers(int mask, int durationIndex) {
+        return fillers[mask][durationIndex];
+    }
+
+    /** Duration index of {@code e} among the mask's fillers, or -1 if it is not one of them. */
+    public int fillerSlot(int mask, Exercise e) {
+        int g = groupId(e.muscleGroup);
+        if (g < 0 || !isFiller(g) || !usable(e, mask)) return -1;
+        int i = Arrays.binarySearch(fillerMinutes[mask], e.estMinutes);
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * Fillers to add per duration index: at most {@code slots} in all and {@code free[i]} of duration i,
+     * summing as close to {@code minutes} as possible (then fewest fillers, then under rather than over).
+     * The exact-sum table answers when its solution fits {@code free}; otherwise a bounded DP over
+     * (filler count <= slots, minutes <= MAX_FILL_MINUTES) runs, one pass per duration.
+     */
+    public int[] fill(int mask, int minutes, int slots, int[] free) {
+        int[] durations = fillerMinutes[mask];
+        int[] counts = new int[durations.length];
+        slots = Math.max(0, slots);
+        if (fillCount(mask, minutes) <= slots) {
+            boolean fits = true;
+            for (int x = minutes; x > 0; ) {
+                int i = fillLast[mask][x];
+                if (++counts[i] > free[i]) fits = false;
+                x -= durations[i];
+            }
+            if (fits) return counts;
+            Arrays.fill(counts, 0);
+        }
+        // reach[i][s]: bitset of the totals reachable with s fillers of the first i durations
+        long[][][] reach = new long[durations.length + 1][slots + 1][(MAX_FILL_MINUTES >> 6) + 1];
+        reach[0][0][0] = 1L;
+        for (int i = 0; i < durations.length; i++) {
+            int cap = Math.min(free[i], slots);
+            for (int s = 0; s <= slots; s++) {
+                for (int k = 0; k <= cap && k <= s; k++) orShifted(reach[i + 1][s], reach[i][s - k], k * durations[i]);
+            }
+        }
+        int target = Math.max(0, Math.min(minutes, MAX_FILL_MINUTES));
+        long[][] all = reach[durations.length];
+        for (int dist = 0; dist <= MAX_FILL_MINUTES; dist++) {
+            for (int s = 0; s <= slots; s++) {
+                int m = target - dist;
+                if (m < 0 || !has(all[s], m)) m = target + dist;
+                if (m > MAX_FILL_MINUTES || !has(all[s], m)) continue;
+                for (int i = durations.length - 1, left = s; i >= 0 && m > 0; i--) {
+                    int k = 0;
+                    while (!has(reach[i][left - k], m - k * durations[i])) k++;
+                    counts[i] = k;
+                    left -= k;
+                    m -= k * durations[i];
+                }
+                return counts;
+            }
+        }
+        return counts;
+    }
+
+    private static void orShifted(long[] dst, long[] src, int shift) {
+        int words = shift >>> 6, bits = shift & 63;
+        for (int j = dst.length - 1; j >= words; j--) {
+            long v = src[j - words] << bits;
+            if (bits != 0 && j > words) v |= src[j - words - 1] >>> (64 - bits);
+            dst[j] |= v;
+        }
+    }
+
+    private static boolean has(long[] set, int m) {
+        return (set[m >>> 6] >>> (m & 63) & 1) != 0;
+    }
+
+    public int poolSize(int mask) {
+        return poolSize[mask];
+    }
+}
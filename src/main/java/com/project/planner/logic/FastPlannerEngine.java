@@ -0,0 +1,217 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Exercise;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.UserProfile;
+
+/**
+ * FastPlannerEngine
+ * - Degraded planner used under overload: serves a template plan per coarse profile bucket
+ *   (diet flags x equipment x workout days x experience); per request it only fits the daily budget
+ *   and scales portions to targetCalories.
+ * - Goal is not part of the bucket; it only moves targetCalories, which scaling already covers.
+ * - Workout length is not part of the bucket either: templates are planned for REFERENCE_MINUTES and
+ *   each day is cut to the longest prefix within minutesPerWorkout (at least three exercises, as
+ *   the full engine keeps). The prefix drops fillers first, then the later main exercises; longer
+ *   workouts than the reference are capped at it.
+ * - Allergies and dislikes are still honoured by dropping offending template meals.
+ * - Template meals are re-priced for the profile's region before the budget is fitted.
+ * - Templates are built once per bucket with the full PlannerEngine and then shared read-only.
+ * - Templates come from the shared catalog, so profiles with a tenant overlay use the full engine.
+ */
+public class FastPlannerEngine implements PlanningEngine {
+
+    static final int REFERENCE_KCAL = 2000;
+    static final double REFERENCE_BUDGET = 400;
+    static final int REFERENCE_MINUTES = 90;
+    private static final int MIN_EXERCISES = 3;
+
+    private final PlannerEngine engine;
+    // immutable lookup published by warmUp(); rarer buckets are built on demand into the overflow map
+    private volatile Map<Integer, Template> warmed = Map.of();
+    private final Map<Integer, Template> templates = new ConcurrentHashMap<>();
+
+    public FastPlannerEngine(PlannerEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public String name() {
+        return "template";
+    }
+
+    @Override
+    public WeeklyPlan plan(UserProfile u, int targetKcal) {
+        return generateWeeklyPlan(u, targetKcal);
+    }
+
+    /**
+     * @return a scaled template plan, or null if the template cannot satisfy this profile
+     *         (e.g. allergies remove every meal of a day, or the profile plans from a tenant's catalog)
+     *         and the full engine should be used.
+     */
+    public WeeklyPlan generateWeeklyPlan(UserProfile u, int targetKcal) {
+        if (engine.overlay(u) != null) return null;
+        int key = bucketKey(u);
+        Template t = warmed.get(key);
+        if (t == null) t = templates.computeIfAbsent(key, this::build);
+        double budget = u.getSchedule().getDailyFoodBudget();
+
+        WeeklyPlan wp = new WeeklyPlan();
+        wp.fastPlan = true;
+        wp.weeklyTargetCalories = targetKcal * 7;
+        wp.weeklyBudget = u.getSchedule().getDailyFoodBudget() * 7.0;
+
+        for (int day = 0; day < 7; day++) {
+            List<Meal> usable = new ArrayList<>();
+            int kcal = 0;
+            for (Meal m : t.meals.get(day)) {
+                if (engine.ingredientsOk(u, m)) {
+                    usable.add(engine.priced(m, u.getRegion())); // templates are costed for the reference region
+                    kcal += m.calories;
+                }
+            }
+            if (usable.isEmpty()) return null;
+            kcal = fitBudget(usable, kcal, targetKcal, budget);
+
+            double factor = targetKcal / (double) kcal;
+            DayPlan dp = new DayPlan();
+            dp.targetCalories = targetKcal;
+            dp.restDay = !t.workoutDays[day];
+            dp.workout = fitMinutes(t.workouts.get(day), t.workoutMinutes[day], u.getSchedule().getMinutesPerWorkout());
+            for (Meal m : usable) {
+                Meal scaled = m.scaled(factor);
+                dp.meals.add(scaled);
+                dp.totalCalories += scaled.calories;
+                dp.protein += scaled.protein;
+                dp.carbs += scaled.carbs;
+                dp.fat += scaled.fat;
+                dp.cost += scaled.cost;
+            }
+            dp.cost = Math.round(dp.cost * 100.0) / 100.0;
+            wp.days.add(dp);
+        }
+        wp.weeklyCost = wp.days.stream().mapToDouble(d -> d.cost).sum();
+        return wp;
+    }
+
+    public int templateCount() {
+        return warmed.size() + templates.size();
+    }
+
+    /**
+     * Warms the underlying engine, then builds templates for every diet x equipment x workout-day x
+     * experience bucket in parallel and publishes them as one immutable map. Buckets not finished within
+     * {@code budgetMillis} are left to be built on first use, so startup time stays bounded however slow
+     * the machine is.
+     */
+    @Override
+    public void warmUp(ExecutorService pool, long budgetMillis) throws InterruptedException {
+        engine.warmUp();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Map<Integer, Template> built = new ConcurrentHashMap<>();
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int key = 0; key < 1 << 12; key++) {
+            if (((key >> 10) & 3) == 3) continue; // only three experience levels
+            int k = key;
+            tasks.add(() -> {
+                if (System.nanoTime() < deadline) built.put(k, build(k));
+                return null;
+            });
+        }
+        pool.invokeAll(tasks, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        warmed = Map.copyOf(built);
+    }
+
+    /** Longest prefix of a template workout lasting at most {@code minutes}; a view, nothing is copied. */
+    private static List<Exercise> fitMinutes(List<Exercise> workout, int[] prefixMinutes, int minutes) {
+        int n = workout.size();
+        int target = Math.max(10, minutes);
+        while (n > MIN_EXERCISES && prefixMinutes[n] > target) n--;
+        return n == workout.size() ? workout : workout.subList(0, n);
+    }
+
+    /**
+     * Scaling keeps calories fixed, so a day's scaled cost is targetKcal x its average cost per kcal.
+     * While that is over budget, drop the meal with the worst cost per kcal (keeping at least two).
+     * @return calories of the remaining meals, before scaling
+     */
+    private int fitBudget(List<Meal> meals, int kcal, int targetKcal, double budget) {
+        while (meals.size() > 2 && scaledCost(meals, kcal, targetKcal) > budget) {
+            Meal worst = meals.stream()
+                    .max(Comparator.comparingDouble(m -> m.cost / Math.max(1, m.calories)))
+                    .get();
+            meals.remove(worst);
+            kcal -= worst.calories;
+        }
+        return kcal;
+    }
+
+    private double scaledCost(List<Meal> meals, int kcal, int targetKcal) {
+        double cost = 0;
+        for (Meal m : meals) cost += m.cost;
+        return cost * targetKcal / Math.max(1, kcal);
+    }
+
+    // ---------- buckets ----------
+
+    /** 5 diet bits | 3 equipment bits | 2 bits workout-day pattern | 2 bits experience. */
+    static int bucketKey(UserProfile u) {
+        int days = Math.max(3, Math.min(6, u.getSchedule().getWorkoutDaysPerWeek())) - 3;
+        return PlannerEngine.dietMask(u) | PlannerEngine.equipmentMask(u) << 5 | days << 8
+                | experienceIndex(u.getExperience()) << 10;
+    }
+
+    private static int experienceIndex(String exp) {
+        if ("INTERMEDIATE".equals(exp)) return 1;
+        if ("ADVANCED".equals(exp)) return 2;
+        return 0;
+    }
+
+    /** Representative profile for a bucket: its flags plus reference numbers. */
+    static UserProfile representative(int key) {
+        UserProfile u = new UserProfile();
+        PlannerEngine.applyDietMask(u, key & 0x1f);
+        PlannerEngine.applyEquipmentMask(u, (key >> 5) & 0x7);
+        u.getSchedule().setWorkoutDaysPerWeek(3 + ((key >> 8) & 3));
+        u.getSchedule().setMinutesPerWorkout(REFERENCE_MINUTES);
+        u.getSchedule().setDailyFoodBudget(REFERENCE_BUDGET);
+        u.setExperience(new String[]{"BEGINNER", "INTERMEDIATE", "ADVANCED"}[(key >> 10) & 3]);
+        return u;
+    }
+
+    private Template build(int key) {
+        UserProfile rep = representative(key);
+        Template t = new Template();
+        t.workoutDays = engine.pickWorkoutDays(rep.getSchedule().getWorkoutDaysPerWeek());
+        t.workouts = new ArrayList<>();
+        t.workoutMinutes = new int[7][];
+        for (List<Exercise> w : engine.planWorkoutWeek(rep, t.workoutDays)) {
+            int[] prefix = new int[w.size() + 1];
+            for (int i = 0; i < w.size(); i++) prefix[i + 1] = prefix[i] + w.get(i).estMinutes;
+            t.workoutMinutes[t.workouts.size()] = prefix;
+            t.workouts.add(List.copyOf(w));
+        }
+        t.meals = new ArrayList<>();
+        for (DayPlan d : engine.planMealWeek(rep, REFERENCE_KCAL)) t.meals.add(List.copyOf(d.meals));
+        return t;
+    }
+
+    private static class Template {
+        boolean[] workoutDays;
+        List<List<Exercise>> workouts;
+        int[][] workoutMinutes; // per day: minutes of the first i exercises at [i]
+        List<List<Meal>> meals;
+    }
+}
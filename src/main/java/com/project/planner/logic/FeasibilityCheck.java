@@ -0,0 +1,236 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.MealPools;
+import com.project.planner.model.UserProfile;
+
+/**
+ * FeasibilityCheck
+ * - Decides before any planning whether a profile's day can be met at all: some meal must be eligible,
+ *   and the daily budget must cover the calorie target (less the planner's 150 kcal fill tolerance).
+ * - A protein floor of 0.8 g per kg body weight is checked too, but only as an advisory: the planner
+ *   plans to calories, not protein, so an unaffordable floor never makes a profile infeasible.
+ * - Uses lower bounds from the single best eligible meal (a day may repeat meals): the lowest cost per
+ *   kcal and the most protein per rupee. No plan can be cheaper, so a failed check is never a false
+ *   alarm; passing does not promise that the greedy planner lands on target.
+ * - Each diet mask's pool of each priced catalog is sorted once by both ratios, held for as long as
+ *   the engine keeps that pool. A check walks each ordering to the first meal the profile's allergies,
+ *   dislikes, cuisines and tenant allow (usually the first), plus the tenant's own dishes.
+ * - An infeasible result carries its reasons and the relaxations that would each pass on their own:
+ *   a higher budget, dropping one diet flag, dropping dislikes or cuisine preferences. Allergies are
+ *   never suggested.
+ */
+public class FeasibilityCheck {
+
+    public static final double PROTEIN_FLOOR_G_PER_KG = 0.8;
+    // planMealsForDay stops filling within this many kcal of the target
+    static final int KCAL_TOLERANCE = 150;
+
+    private static final String[] DIET_FLAGS = {"vegetarian", "vegan", "lactoseFree", "glutenFree", "halal"};
+
+    private final PlannerEngine engine;
+    // per diet-mask pool; entries go away with the pools of re-priced catalogs
+    private final Map<MealPools, Bounds> bounds = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public FeasibilityCheck(PlannerEngine engine) {
+        this.engine = engine;
+    }
+
+    public Result check(UserProfile u, int targetKcal) {
+        Result r = new Result();
+        r.targetKcal = targetKcal;
+        r.dailyBudget = u.getSchedule().getDailyFoodBudget();
+        int mask = PlannerEngine.dietMask(u);
+        Best best = best(u, mask, true, true);
+        if (best == null) {
+            r.reasons.add(reason("NO_ELIGIBLE_MEALS",
+                    "no meal fits the diet, allergies, dislikes and cuisines together", 1, 0));
+        } else {
+            double kcalCost = kcalCost(best, targetKcal), proteinCost = proteinCost(best, u);
+            r.minDailyBudget = round2(kcalCost);
+            if (kcalCost > r.dailyBudget) {
+                r.reasons.add(reason("BUDGET_BELOW_CALORIE_COST", String.format(
+                        "%d kcal cost at least %.2f a day (cheapest calories: %s)",
+                        targetKcal - KCAL_TOLERANCE, kcalCost, best.cheapest.name), round2(kcalCost), r.dailyBudget));
+            }
+            if (proteinCost > r.dailyBudget) {
+                r.advisories.add(reason("BUDGET_BELOW_PROTEIN_COST", String.format(
+                        "%.0f g protein cost at least %.2f a day (cheapest protein: %s)",
+                        proteinFloor(u), proteinCost, best.leanest.name), round2(proteinCost), r.dailyBudget));
+            }
+        }
+        r.feasible = r.reasons.isEmpty();
+        if (!r.feasible) suggest(u, mask, targetKcal, r);
+        return r;
+    }
+
+    private void suggest(UserProfile u, int mask, int targetKcal, Result r) {
+        if (r.minDailyBudget != null) r.relaxations.add(relaxation("dailyFoodBudget", Math.ceil(r.minDailyBudget), r.minDailyBudget));
+        for (int bit = 0; bit < DIET_FLAGS.length; bit++) {
+            if ((mask & 1 << bit) == 0) continue;
+            relaxIfEnough(DIET_FLAGS[bit], false, best(u, mask & ~(1 << bit), true, true), targetKcal, r);
+        }
+        if (!u.getDiet().getDislikedIngredients().isEmpty()) {
+            relaxIfEnough("dislikedIngredients", "", best(u, mask, false, true), targetKcal, r);
+        }
+        if (!u.getDiet().getPreferredCuisines().isEmpty()) {
+            relaxIfEnough("preferredCuisines", "", best(u, mask, true, false), targetKcal, r);
+        }
+    }
+
+    private void relaxIfEnough(String field, Object value, Best best, int targetKcal, Result r) {
+        if (best == null) return;
+        double need = kcalCost(best, targetKcal);
+        if (need <= r.dailyBudget) r.relaxations.add(relaxation(field, value, round2(need)));
+    }
+
+    /** Best ratios among the meals eligible under {@code mask}, or null if there are none. */
+    private Best best(UserProfile u, int mask, boolean dislikes, boolean cuisines) {
+        UserProfile flags = u;
+        if (mask != PlannerEngine.dietMask(u)) {
+            flags = new UserProfile();
+            PlannerEngine.applyDietMask(flags, mask);
+            flags.setRegion(u.getRegion());
+        }
+        Bounds b = bounds(engine.basePools(flags));
+        CatalogOverlay overlay = engine.overlay(u);
+        Best best = new Best();
+        for (Meal m : b.byCostPerKcal) {
+            if ((overlay == null || overlay.keeps(m)) && eligible(u, m, dislikes, cuisines)) {
+                best.cheapest = m;
+                break;
+            }
+        }
+        for (Meal m : b.byProteinPerRupee) {
+            if ((overlay == null || overlay.keeps(m)) && eligible(u, m, dislikes, cuisines)) {
+                best.leanest = m;
+                break;
+            }
+        }
+        if (overlay != null) {
+            for (Meal m : overlay.extras()) {
+                if (!engine.dietFlagsOk(flags, m) || !eligible(u, m, dislikes, cuisines)) continue;
+                if (best.cheapest == null || costPerKcal(m) < costPerKcal(best.cheapest)) best.cheapest = m;
+                if (best.leanest == null || proteinPerRupee(m) > proteinPerRupee(best.leanest)) best.leanest = m;
+            }
+        }
+        return best.cheapest == null ? null : best;
+    }
+
+    private boolean eligible(UserProfile u, Meal m, boolean dislikes, boolean cuisines) {
+        for (String a : u.getDiet().getAllergies()) if (m.ingredients.contains(a)) return false;
+        if (dislikes) {
+            for (String d : u.getDiet().getDislikedIngredients()) if (m.ingredients.contains(d)) return false;
+        }
+        return !cuisines || engine.cuisineOk(u, m);
+    }
+
+    private Bounds bounds(MealPools pools) {
+        Bounds b = bounds.get(pools);
+        if (b == null) {
+            // racing threads build equal bounds; either may win
+            b = new Bounds(pools.pool);
+            bounds.put(pools, b);
+        }
+        return b;
+    }
+
+    private static double kcalCost(Best b, int targetKcal) {
+        return Math.max(0, targetKcal - KCAL_TOLERANCE) * costPerKcal(b.cheapest);
+    }
+
+    private static double proteinCost(Best b, UserProfile u) {
+        double floor = proteinFloor(u), ratio = proteinPerRupee(b.leanest);
+        if (floor == 0) return 0;
+        return ratio == 0 ? Double.POSITIVE_INFINITY : floor / ratio;
+    }
+
+    private static double proteinFloor(UserProfile u) {
+        return Math.max(0, u.getWeightKg()) * PROTEIN_FLOOR_G_PER_KG;
+    }
+
+    private static double costPerKcal(Meal m) {
+        return m.cost / Math.max(1, m.calories);
+    }
+
+    private static double proteinPerRupee(Meal m) {
+        return m.cost > 0 ? m.protein / m.cost : Double.POSITIVE_INFINITY;
+    }
+
+    private static Reason reason(String code, String message, double required, double available) {
+        Reason r = new Reason();
+        r.code = code;
+        r.message = message;
+        r.required = required;
+        r.available = available;
+        return r;
+    }
+
+    private static Relaxation relaxation(String field, Object value, double minDailyBudget) {
+        Relaxation r = new Relaxation();
+        r.field = field;
+        r.value = value;
+        r.minDailyBudget = minDailyBudget;
+        return r;
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    /** One pool's meals by cost per kcal (ascending) and protein per rupee (descending). */
+    static final class Bounds {
+        final List<Meal> byCostPerKcal;
+        final List<Meal> byProteinPerRupee;
+
+        Bounds(List<Meal> pool) {
+            byCostPerKcal = pool.stream().sorted(Comparator.comparingDouble(FeasibilityCheck::costPerKcal))
+                    .collect(Collectors.toUnmodifiableList());
+            byProteinPerRupee = pool.stream()
+                    .sorted(Comparator.comparingDouble(FeasibilityCheck::proteinPerRupee).reversed())
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    }
+
+    private static final class Best {
+        Meal cheapest;
+        Meal leanest; // most protein per rupee
+    }
+
+    public static class Result {
+        public boolean feasible;
+        public int targetKcal;
+        public double dailyBudget;
+        /** Lower bound on the daily budget the calorie target needs; null when no meal is eligible. */
+        public Double minDailyBudget;
+        public List<Reason> reasons = new ArrayList<>();
+        /** Bounds the plan may miss without being refused: BUDGET_BELOW_PROTEIN_COST. */
+        public List<Reason> advisories = new ArrayList<>();
+        /** Changes that would each pass the check on their own, budget first. */
+        public List<Relaxation> relaxations = new ArrayList<>();
+    }
+
+    public static class Reason {
+        public String code;
+        public String message;
+        /** Daily budget needed and given; for NO_ELIGIBLE_MEALS, meals needed (1) and eligible (0). */
+        public double required;
+        public double available;
+    }
+
+    public static class Relaxation {
+        /** Input field (UserInputDTO name) and the value to submit instead. */
+        public String field;
+        public Object value;
+        /** Lower bound on the daily budget with this change alone. */
+        public double minDailyBudget;
+    }
+}
@@ -0,0 +1,239 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Exercise;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.DietPreference;
+import com.project.planner.model.UserProfile;
+
+/**
+ * HouseholdPlanner
+ * - One shared weekly menu for several members, planned once. The menu comes from the meals every
+ *   member may eat: all diet flags, allergies and dislikes combined. A cuisine any member prefers is
+ *   allowed.
+ * - The menu is planned at the members' mean calorie target. Each member gets the same dishes scaled
+ *   to their own target, plus their own workouts.
+ * - Cooking is shared. Dish ingredients scale with the portions served. PER_BATCH ingredients
+ *   (seasoning, cooking fat) are bought once per dish, however many plates it fills.
+ * - Shopping is shared too: each ingredient of the merged weekly list is bought in whole packs
+ *   (PACK_SERVINGS), and larger packs cost less per serving (PACK_PRICE). A household rounds up once
+ *   per ingredient instead of once per member, and reaches the bulk packs sooner, so its cost grows
+ *   sub-linearly in members up to the largest pack; beyond that, linearly at the bulk price.
+ *   separateCost is the same portions cooked and bought by each member alone.
+ * - One merged shopping list, in catalog servings.
+ */
+public class HouseholdPlanner {
+
+    public static final int MAX_MEMBERS = 12;
+    /** Ingredients that go into the pot once per dish rather than once per plate. */
+    public static final Set<String> PER_BATCH = Set.of("spices", "oil", "ghee", "tempering", "turmeric");
+    /** Pack sizes an ingredient is sold in, in catalog servings, and their price per serving (list = 1). */
+    public static final int[] PACK_SERVINGS = {1, 7, 28};
+    public static final double[] PACK_PRICE = {1.0, 0.85, 0.70};
+
+    private final PlannerEngine engine;
+
+    public HouseholdPlanner(PlannerEngine engine) {
+        this.engine = engine;
+    }
+
+    /** Whether all members plan from the same catalog: the same tenant, or none. */
+    public static boolean sameTenant(List<UserProfile> members) {
+        for (UserProfile m : members) {
+            if (!Objects.equals(m.getTenant(), members.get(0).getTenant())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param members canonical profiles of one tenant (or none); the first member's region prices the menu,
+     *                and the tenant's catalog supplies it
+     * @param dailyBudget household food budget per day; 0 or less = sum of the members' budgets
+     */
+    public HouseholdPlan plan(List<UserProfile> members, double dailyBudget) {
+        if (members.isEmpty() || members.size() > MAX_MEMBERS) {
+            throw new IllegalArgumentException("a household has 1.." + MAX_MEMBERS + " members, got " + members.size());
+        }
+        if (!sameTenant(members)) throw new IllegalArgumentException("household members name different tenants");
+        int n = members.size();
+        int[] targets = new int[n];
+        double budget = 0, targetSum = 0;
+        for (int i = 0; i < n; i++) {
+            targets[i] = engine.targetCalories(members.get(i));
+            targetSum += targets[i];
+            budget += members.get(i).getSchedule().getDailyFoodBudget();
+        }
+        if (dailyBudget > 0) budget = dailyBudget;
+        int referenceKcal = (int) Math.round(targetSum / n);
+
+        List<DayPlan> menu = engine.planMealWeek(shared(members, budget / n), referenceKcal);
+        String region = members.get(0).getRegion();
+
+        HouseholdPlan hp = new HouseholdPlan();
+        hp.referenceCalories = referenceKcal;
+        hp.weeklyBudget = budget * 7;
+        double[][] memberCost = new double[n][menu.size()];
+        double[] factors = new double[n];
+        // ingredient -> {servings, list cost} for the week: the household's, and each member's alone
+        Map<String, double[]> shared = new HashMap<>();
+        List<Map<String, double[]>> alone = new ArrayList<>();
+        for (int i = 0; i < n; i++) alone.add(new HashMap<>());
+        for (int d = 0; d < menu.size(); d++) {
+            DayPlan day = menu.get(d);
+            for (int i = 0; i < n; i++) factors[i] = targets[i] / (double) Math.max(1, day.totalCalories);
+            double portions = 0;
+            for (double f : factors) portions += f;
+            for (Meal m : day.meals) {
+                double perBatch = 0, perPortion = 0;
+                for (String ing : m.ingredients) {
+                    double c = ingredientCost(region, m, ing);
+                    boolean batch = PER_BATCH.contains(ing);
+                    if (batch) perBatch += c;
+                    else perPortion += c;
+                    double servings = batch ? 1 : portions;
+                    hp.shoppingList.merge(ing, servings, Double::sum);
+                    add(shared, ing, servings, batch ? c : c * portions);
+                    // cooked alone, every member buys a whole batch of seasoning for their own plate
+                    for (int i = 0; i < n; i++) add(alone.get(i), ing, batch ? 1 : factors[i], batch ? c : c * factors[i]);
+                }
+                for (int i = 0; i < n; i++) memberCost[i][d] += perPortion * factors[i] + perBatch / n;
+            }
+        }
+        hp.shoppingList.replaceAll((ing, servings) -> round2(servings));
+        // members' days carry their share of what the household actually pays for its packs
+        double listCost = 0, packCost = 0;
+        for (double[] e : shared.values()) {
+            listCost += e[1];
+            packCost += bought(e);
+        }
+        double packRatio = listCost > 0 ? packCost / listCost : 1;
+        for (double[] days : memberCost) for (int d = 0; d < days.length; d++) days[d] *= packRatio;
+        for (Map<String, double[]> own : alone) for (double[] e : own.values()) hp.separateCost += bought(e);
+
+        for (int i = 0; i < n; i++) {
+            UserProfile u = members.get(i);
+            boolean[] workoutDays = engine.pickWorkoutDays(u.getSchedule().getWorkoutDaysPerWeek());
+            List<List<Exercise>> workouts = engine.planWorkoutWeek(u, workoutDays);
+            List<DayPlan> days = new ArrayList<>(menu.size());
+            for (int d = 0; d < menu.size(); d++) {
+                DayPlan dp = portion(menu.get(d), targets[i]);
+                dp.cost = round2(memberCost[i][d]);
+                days.add(dp);
+            }
+            MemberPlan mp = new MemberPlan();
+            mp.name = u.getName();
+            mp.targetCalories = targets[i];
+            mp.plan = engine.assemble(u, targets[i], workoutDays, workouts, days);
+            mp.weeklyCost = round2(mp.plan.weeklyCost);
+            hp.members.add(mp);
+            hp.weeklyCost += mp.plan.weeklyCost;
+        }
+        hp.weeklyCost = round2(hp.weeklyCost);
+        hp.separateCost = round2(hp.separateCost);
+        return hp;
+    }
+
+    private static void add(Map<String, double[]> list, String ingredient, double servings, double cost) {
+        double[] e = list.computeIfAbsent(ingredient, k -> new double[2]);
+        e[0] += servings;
+        e[1] += cost;
+    }
+
+    /** What a week's {@code {servings, list cost}} of one ingredient costs bought in the cheapest whole packs. */
+    private static double bought(double[] entry) {
+        if (entry[0] <= 0) return 0;
+        return packServings((int) Math.ceil(entry[0] - 1e-9)) * entry[1] / entry[0];
+    }
+
+    /** Cheapest whole packs covering {@code servings}, priced in servings at list price. */
+    static double packServings(int servings) {
+        double[] best = new double[servings + 1];
+        for (int s = 1; s <= servings; s++) {
+            best[s] = Double.MAX_VALUE;
+            for (int p = 0; p < PACK_SERVINGS.length; p++) {
+                double c = PACK_SERVINGS[p] * PACK_PRICE[p] + best[Math.max(0, s - PACK_SERVINGS[p])];
+                if (c < best[s]) best[s] = c;
+            }
+        }
+        return best[servings];
+    }
+
+    /** Profile whose meal pool is the meals every member may eat; only the meal planner reads it. */
+    static UserProfile shared(List<UserProfile> members, double dailyBudgetPerPortion) {
+        UserProfile s = new UserProfile();
+        s.setName("household");
+        s.setRegion(members.get(0).getRegion());
+        s.setTenant(members.get(0).getTenant());
+        DietPreference d = s.getDiet();
+        for (UserProfile u : members) {
+            DietPreference m = u.getDiet();
+            d.setVegetarian(d.isVegetarian() || m.isVegetarian());
+            d.setVegan(d.isVegan() || m.isVegan());
+            d.setLactoseFree(d.isLactoseFree() || m.isLactoseFree());
+            d.setGlutenFree(d.isGlutenFree() || m.isGlutenFree());
+            d.setHalal(d.isHalal() || m.isHalal());
+            d.getAllergies().addAll(m.getAllergies());
+            d.getDislikedIngredients().addAll(m.getDislikedIngredients());
+            d.getPreferredCuisines().addAll(m.getPreferredCuisines());
+        }
+        // a member without cuisine preferences accepts every cuisine
+        for (UserProfile u : members) {
+            if (u.getDiet().getPreferredCuisines().isEmpty()) d.getPreferredCuisines().clear();
+        }
+        s.getSchedule().setDailyFoodBudget(dailyBudgetPerPortion);
+        return s;
+    }
+
+    /** The shared day with every dish scaled so the member's total lands on their target; cost is set by the caller. */
+    private static DayPlan portion(DayPlan day, int targetKcal) {
+        double factor = targetKcal / (double) Math.max(1, day.totalCalories);
+        DayPlan dp = new DayPlan();
+        dp.targetCalories = targetKcal;
+        for (Meal m : day.meals) {
+            Meal scaled = m.scaled(factor);
+            dp.meals.add(scaled);
+            dp.totalCalories += scaled.calories;
+            dp.protein += scaled.protein;
+            dp.carbs += scaled.carbs;
+            dp.fat += scaled.fat;
+        }
+        return dp;
+    }
+
+    private double ingredientCost(String region, Meal m, String ingredient) {
+        MealPricing p = engine.pricing();
+        // without price tables (or for a tenant's own dish), a meal's cost is split evenly over its ingredients
+        return p != null && m.id >= 0 ? p.ingredientCost(region, m, ingredient) : m.cost / Math.max(1, m.ingredients.size());
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    public static class HouseholdPlan {
+        public List<MemberPlan> members = new ArrayList<>();
+        public int referenceCalories;
+        public double weeklyBudget;
+        /** Shared cooking and shopping: per-batch ingredients once per dish, the merged list in whole packs. */
+        public double weeklyCost;
+        /** The same portions cooked by each member alone, each buying their own packs. */
+        public double separateCost;
+        public Map<String, Double> shoppingList = new TreeMap<>();
+    }
+
+    public static class MemberPlan {
+        public String name;
+        public int targetCalories;
+        public double weeklyCost;
+        public WeeklyPlan plan;
+    }
+}
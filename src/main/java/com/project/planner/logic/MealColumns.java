@@ -0,0 +1,52 @@
+package com.project.planner.logic;
+
+import java.util.List;
+
+import com.project.planner.logic.PlannerEngine.Meal;
+
+/**
+ * MealColumns
+ * - Column-oriented copy of an ordered meal list's calories and cost, the fields the affordable-meal
+ *   scan tests: selection loops stream through contiguous memory instead of chasing a Meal
+ *   reference per candidate.
+ * - Both columns are doubles: calories are exact, cost keeps the catalog's precision, and the vector
+ *   kernel compares them with one lane shape.
+ * - Selection runs on ScoringKernel.preferred(); indices refer to the source list's order.
+ * Immutable and Spring-free.
+ */
+public final class MealColumns {
+
+    final int size;
+    final double[] calories;
+    final double[] cost;
+    private final ScoringKernel kernel;
+
+    public MealColumns(List<Meal> meals) {
+        this(meals, ScoringKernel.preferred());
+    }
+
+    public MealColumns(List<Meal> meals, ScoringKernel kernel) {
+        this.size = meals.size();
+        this.calories = new double[size];
+        this.cost = new double[size];
+        for (int i = 0; i < size; i++) {
+            Meal m = meals.get(i);
+            calories[i] = m.calories;
+            cost[i] = m.cost;
+        }
+        this.kernel = kernel;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ScoringKernel kernel() {
+        return kernel;
+    }
+
+    /** @return index of the first meal within both limits, or -1 */
+    public int firstFit(double maxKcal, double maxCost) {
+        return kernel.firstFit(this, maxKcal, maxCost);
+    }
+}
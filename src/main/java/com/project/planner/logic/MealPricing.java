@@ -0,0 +1,168 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.project.planner.logic.PlannerEngine.Meal;
+
+/**
+ * MealPricing
+ * - Meal costs from ingredient prices: each catalog meal's cost is the sum of its ingredients' unit
+ *   prices times a per-meal quantity, calibrated once so that it costs its catalog price at the
+ *   reference table's REFERENCE_REGION prices.
+ * - Costs are cached per resolved price region in a bounded LRU (MAX_REGIONS).
+ * - A price update re-costs cached regions incrementally: only ingredients whose effective price
+ *   changed are visited, and only the meals that use them are adjusted.
+ * - Each cache entry hands out an immutable priced catalog; a new one is built only after a change.
+ */
+public class MealPricing {
+
+    public static final int MAX_REGIONS = 32;
+
+    private final List<Meal> catalog;
+    private final double[] quantity;                      // by meal id
+    private final Map<String, int[]> mealsByIngredient;   // ingredient -> ids of meals using it
+    private final Map<String, RegionCosts> regions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RegionCosts> eldest) {
+            return size() > MAX_REGIONS;
+        }
+    };
+    private PriceTable table;
+    private long version;
+    private long recosts;
+
+    /** @param catalog meals indexed by their id, with reference-region costs */
+    public MealPricing(List<Meal> catalog, PriceTable reference) {
+        this.catalog = List.copyOf(catalog);
+        this.table = reference;
+        this.quantity = new double[catalog.size()];
+        Map<String, List<Integer>> uses = new HashMap<>();
+        String ref = reference.resolve(PriceTable.REFERENCE_REGION);
+        for (Meal m : catalog) {
+            double unitSum = 0;
+            for (String ing : m.ingredients) {
+                unitSum += reference.price(ref, ing);
+                uses.computeIfAbsent(ing, k -> new ArrayList<>()).add(m.id);
+            }
+            quantity[m.id] = unitSum > 0 ? m.cost / unitSum : 0;
+        }
+        this.mealsByIngredient = new HashMap<>();
+        uses.forEach((ing, ids) -> mealsByIngredient.put(ing, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /** Catalog priced for the region; the same instance until a price it depends on changes. */
+    public synchronized PricedCatalog catalog(String region) {
+        RegionCosts rc = costs(table.resolve(region));
+        if (rc.snapshot == null) rc.snapshot = new PricedCatalog(rc.region, priced(rc.cost));
+        return rc.snapshot;
+    }
+
+    /** Cost of one catalog meal in the region, at its catalog portion. */
+    public synchronized double cost(String region, Meal m) {
+        return round2(costs(table.resolve(region)).cost[m.id]);
+    }
+
+    /** Part of {@link #cost} spent on one of the meal's ingredients (0 if it has no such ingredient). */
+    public synchronized double ingredientCost(String region, Meal m, String ingredient) {
+        if (m.id < 0 || !m.ingredients.contains(ingredient)) return 0;
+        return quantity[m.id] * table.price(table.resolve(region), ingredient);
+    }
+
+    public synchronized PriceTable table() {
+        return table;
+    }
+
+    /**
+     * Switches to {@code next} and re-costs cached regions by the difference. Regions whose table is
+     * resolved differently under {@code next} (a region table added or removed) are dropped instead.
+     * @return number of (region, meal) costs adjusted
+     */
+    public synchronized int update(PriceTable next) {
+        PriceTable previous = table;
+        table = next;
+        version++;
+        int adjusted = 0;
+        for (var it = regions.values().iterator(); it.hasNext(); ) {
+            RegionCosts rc = it.next();
+            if (!next.resolve(rc.region).equals(rc.region)) {
+                it.remove();
+                continue;
+            }
+            boolean changed = false;
+            for (Map.Entry<String, int[]> e : mealsByIngredient.entrySet()) {
+                double delta = next.price(rc.region, e.getKey()) - previous.price(rc.region, e.getKey());
+                if (delta == 0) continue;
+                for (int id : e.getValue()) rc.cost[id] += quantity[id] * delta;
+                adjusted += e.getValue().length;
+                changed = true;
+            }
+            if (changed) rc.snapshot = null;
+        }
+        recosts += adjusted;
+        return adjusted;
+    }
+
+    /** Number of price tables applied after the first; changes whenever meal costs may have. */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized int cachedRegions() {
+        return regions.size();
+    }
+
+    /** Meal costs adjusted by updates so far (as opposed to full catalog re-costs). */
+    public synchronized long incrementalRecosts() {
+        return recosts;
+    }
+
+    private RegionCosts costs(String resolved) {
+        RegionCosts rc = regions.get(resolved);
+        if (rc == null) {
+            rc = new RegionCosts(resolved, new double[catalog.size()]);
+            for (Meal m : catalog) {
+                double unitSum = 0;
+                for (String ing : m.ingredients) unitSum += table.price(resolved, ing);
+                rc.cost[m.id] = quantity[m.id] * unitSum;
+            }
+            regions.put(resolved, rc);
+        }
+        return rc;
+    }
+
+    private List<Meal> priced(double[] cost) {
+        List<Meal> out = new ArrayList<>(catalog.size());
+        for (Meal m : catalog) out.add(m.withCost(round2(cost[m.id])));
+        return List.copyOf(out);
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    private static final class RegionCosts {
+        final String region;
+        final double[] cost;
+        PricedCatalog snapshot;
+
+        RegionCosts(String region, double[] cost) {
+            this.region = region;
+            this.cost = cost;
+        }
+    }
+
+    /** Immutable catalog with region costs; compare by identity to detect re-pricing. */
+    public static final class PricedCatalog {
+        public final String region;
+        public final List<Meal> meals;
+
+        PricedCatalog(String region, List<Meal> meals) {
+            this.region = region;
+            this.meals = meals;
+        }
+    }
+}
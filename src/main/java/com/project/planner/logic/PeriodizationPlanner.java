@@ -0,0 +1,146 @@
+package com.project.planner.logic;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Exercise;
+import com.project.planner.logic.PlannerEngine.TrainingState;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.Schedule;
+import com.project.planner.model.UserProfile;
+
+/**
+ * PeriodizationPlanner
+ * - Multi-week programs built on PlannerEngine: mesocycles of BUILD_WEEKS progressively longer
+ *   sessions followed by one deload week (fewer days, shorter sessions).
+ * - Strength groups get RECOVERY_DAYS of rest after being trained, also across week boundaries.
+ * - Experience steps up one level every LEVEL_UP_WEEKS weeks of training.
+ * - Weeks are computed on demand and only the training state is carried between them, so a 52-week
+ *   program costs one week of latency before the first week is available and one week of memory.
+ */
+public class PeriodizationPlanner {
+
+    public static final int BUILD_WEEKS = 3;
+    public static final int CYCLE_WEEKS = BUILD_WEEKS + 1;
+    public static final int RECOVERY_DAYS = 1;
+    public static final int LEVEL_UP_WEEKS = 8;
+    public static final int MAX_WEEKS = 104;
+
+    private static final double OVERLOAD_STEP = 0.05;
+    private static final double MAX_OVERLOAD = 1.3;
+    private static final double DELOAD_VOLUME = 0.6;
+
+    private final PlannerEngine engine;
+
+    public PeriodizationPlanner(PlannerEngine engine) {
+        this.engine = engine;
+    }
+
+    /** Lazily planned weeks 1..weeks; each element is computed when the stream reaches it. */
+    public Stream<TrainingWeek> program(UserProfile u, int weeks) {
+        int n = Math.max(1, Math.min(MAX_WEEKS, weeks));
+        Spliterator<TrainingWeek> weeksAhead = Spliterators.spliterator(new WeekIterator(u, n), n,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(weeksAhead, false);
+    }
+
+    /** Session-length multiplier for a 1-based week: +5% per build week and mesocycle, capped; 60% on deloads. */
+    public static double volumeFactor(int week) {
+        if (isDeload(week)) return DELOAD_VOLUME;
+        int cycle = (week - 1) / CYCLE_WEEKS;
+        int pos = (week - 1) % CYCLE_WEEKS;
+        return Math.min(MAX_OVERLOAD, 1.0 + OVERLOAD_STEP * (cycle + pos));
+    }
+
+    public static boolean isDeload(int week) {
+        return week % CYCLE_WEEKS == 0;
+    }
+
+    static String experienceFor(String start, int week) {
+        int level = Math.max(0, ExerciseIndex.levelId(start));
+        int stepped = Math.min(ExerciseIndex.LEVELS.length - 1, level + (week - 1) / LEVEL_UP_WEEKS);
+        return ExerciseIndex.LEVELS[stepped];
+    }
+
+    private class WeekIterator implements Iterator<TrainingWeek> {
+        private final UserProfile base;
+        private final int weeks;
+        private final int targetKcal;
+        private final TrainingState state = new TrainingState(RECOVERY_DAYS);
+        private int week = 1;
+
+        WeekIterator(UserProfile base, int weeks) {
+            this.base = base;
+            this.weeks = weeks;
+            this.targetKcal = engine.targetCalories(base);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return week <= weeks;
+        }
+
+        @Override
+        public TrainingWeek next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            TrainingWeek tw = new TrainingWeek();
+            tw.week = week;
+            tw.phase = isDeload(week) ? "DELOAD" : "BUILD";
+            tw.volumeFactor = volumeFactor(week);
+            tw.experience = experienceFor(base.getExperience(), week);
+
+            int days = base.getSchedule().getWorkoutDaysPerWeek();
+            tw.workoutDaysPerWeek = isDeload(week) ? Math.max(3, days - 1) : days;
+            tw.minutesPerWorkout = Math.max(10,
+                    (int) Math.round(base.getSchedule().getMinutesPerWorkout() * tw.volumeFactor));
+            UserProfile u = forWeek(tw);
+
+            state.newWeek();
+            boolean[] workoutDays = engine.pickWorkoutDays(tw.workoutDaysPerWeek);
+            List<List<Exercise>> workouts = engine.planWorkoutWeek(u, workoutDays, state);
+            List<DayPlan> mealDays = engine.planMealWeek(u, targetKcal);
+            tw.plan = engine.assemble(u, targetKcal, workoutDays, workouts, mealDays);
+            week++;
+            return tw;
+        }
+
+        // shares diet and equipment with the base profile; only the schedule and level change per week
+        private UserProfile forWeek(TrainingWeek tw) {
+            UserProfile u = new UserProfile();
+            u.setName(base.getName());
+            u.setAge(base.getAge());
+            u.setSex(base.getSex());
+            u.setHeightCm(base.getHeightCm());
+            u.setWeightKg(base.getWeightKg());
+            u.setActivityLevel(base.getActivityLevel());
+            u.setGoal(base.getGoal());
+            u.setRegion(base.getRegion());
+            u.setTenant(base.getTenant());
+            u.setDiet(base.getDiet());
+            u.setEquipment(base.getEquipment());
+            u.setExperience(tw.experience);
+            Schedule s = new Schedule();
+            s.setWorkoutDaysPerWeek(tw.workoutDaysPerWeek);
+            s.setMinutesPerWorkout(tw.minutesPerWorkout);
+            s.setDailyFoodBudget(base.getSchedule().getDailyFoodBudget());
+            u.setSchedule(s);
+            return u;
+        }
+    }
+
+    public static class TrainingWeek {
+        public int week;
+        public String phase;
+        public double volumeFactor;
+        public String experience;
+        public int workoutDaysPerWeek;
+        public int minutesPerWorkout;
+        public WeeklyPlan plan;
+    }
+}
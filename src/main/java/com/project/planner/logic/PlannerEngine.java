@@ -2,13 +2,21 @@ package com.project.planner.logic;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import com.project.planner.model.UserProfile;
 
@@ -19,61 +27,353 @@ import com.project.planner.model.UserProfile;
  *
  * Note: This is a mostly direct port of the earlier single-file logic to a serviceable class.
  */
-public class PlannerEngine {
+public class PlannerEngine implements PlanningEngine {
+
+    private static final int MAX_EXERCISES = 11;
+    private static final int MAX_SWAPS = 2;
 
     private final Random rng = new Random(42);
-    private final List<Exercise> dbExercises = Database.exercises();
-    private final List<Meal> dbMeals = Database.meals();
+    // catalog is loaded on first use rather than when the engine is constructed (faster startup)
+    private volatile List<Exercise> dbExercises;
+    private volatile List<Meal> dbMeals;
+
+    // filled by warmUp(); until then pools are derived per request
+    private volatile Map<Integer, MealPools> mealPoolsByDiet = Map.of();
+    private volatile ExerciseIndex exerciseIndex;
+    // logged-progress TDEE estimates; without a store targets come from the formula alone
+    private volatile TdeeStore tdeeStore;
+    // regional meal costs; without pricing meals cost their catalog price everywhere
+    private volatile MealPricing pricing;
+    // tenant id -> catalog overlay; profiles without a tenant plan from the shared catalog alone
+    private volatile Map<String, CatalogOverlay> tenants = Map.of();
+    // pools per priced catalog and diet mask; entries go away with catalogs replaced by re-pricing
+    private final Map<MealPricing.PricedCatalog, MealPools[]> pricedPools = Collections.synchronizedMap(new WeakHashMap<>());
 
     public WeeklyPlan generateWeeklyPlan(UserProfile u) {
-        WeeklyPlan wp = new WeeklyPlan();
-        int targetKcal = targetCalories(u);
-        wp.weeklyTargetCalories = targetKcal * 7;
-        wp.weeklyBudget = u.getSchedule().getDailyFoodBudget() * 7.0;
+        return plan(u, targetCalories(u));
+    }
 
+    @Override
+    public String name() {
+        return "greedy";
+    }
+
+    @Override
+    public WeeklyPlan plan(UserProfile u, int targetKcal) {
         boolean[] workoutDays = pickWorkoutDays(u.getSchedule().getWorkoutDaysPerWeek());
+        List<List<Exercise>> workouts = planWorkoutWeek(u, workoutDays);
+        List<DayPlan> mealDays = planMealWeek(u, targetKcal);
+        return assemble(u, targetKcal, workoutDays, workouts, mealDays);
+    }
+
+    // ---------- pipeline stages (usable independently, e.g. workouts and meals in parallel) ----------
+
+    public List<List<Exercise>> planWorkoutWeek(UserProfile u, boolean[] workoutDays) {
+        return planWorkoutWeek(u, workoutDays, new TrainingState(0));
+    }
+
+    /** Plans the next 7 days of {@code state}, which carries group balance and recovery across weeks. */
+    public List<List<Exercise>> planWorkoutWeek(UserProfile u, boolean[] workoutDays, TrainingState state) {
+        try (Trace.Span span = Trace.span("workouts.select")) {
+            List<List<Exercise>> week = new ArrayList<>();
+            int exercises = 0;
+            for (int day = 0; day < 7; day++) {
+                week.add(workoutDays[day] ? planWorkoutForDay(u, state) : new ArrayList<>());
+                exercises += week.get(day).size();
+                state.day++;
+            }
+            span.tag("exercises", exercises);
+            return week;
+        }
+    }
 
+    public List<DayPlan> planMealWeek(UserProfile u, int targetKcal) {
+        MealPools pools;
+        try (Trace.Span span = Trace.span("meals.filter")) {
+            pools = mealPools(u);
+            span.tag("pool.size", pools.pool.size());
+        }
+        try (Trace.Span span = Trace.span("meals.greedy")) {
+            List<DayPlan> week = new ArrayList<>();
+            int iterations = 0;
+            for (int day = 0; day < 7; day++) {
+                DayPlan dp = new DayPlan();
+                dp.targetCalories = targetKcal;
+                iterations += planMealsForDay(u, dp, pools);
+                week.add(dp);
+            }
+            if (!span.isNoop()) {
+                span.tag("iterations", iterations);
+                span.tag("meals.chosen", week.stream().flatMap(d -> d.meals.stream()).map(m -> m.name)
+                        .distinct().collect(Collectors.joining(",")));
+            }
+            return week;
+        }
+    }
+
+    public WeeklyPlan assemble(UserProfile u, int targetKcal, boolean[] workoutDays,
+                               List<List<Exercise>> workouts, List<DayPlan> mealDays) {
+        WeeklyPlan wp = new WeeklyPlan();
+        wp.weeklyTargetCalories = targetKcal * 7;
+        wp.weeklyBudget = u.getSchedule().getDailyFoodBudget() * 7.0;
         for (int day = 0; day < 7; day++) {
-            DayPlan dp = new DayPlan();
-            dp.targetCalories = targetKcal;
+            DayPlan dp = mealDays.get(day);
             dp.restDay = !workoutDays[day];
-            if (!dp.restDay) {
-                dp.workout = planWorkoutForDay(u);
-            } else {
-                dp.workout = new ArrayList<>();
-            }
-            planMealsForDay(u, dp);
+            dp.workout = workouts.get(day);
             wp.days.add(dp);
         }
-
         wp.weeklyCost = wp.days.stream().mapToDouble(d -> d.cost).sum();
         return wp;
     }
 
+    public void setTdeeStore(TdeeStore tdeeStore) {
+        this.tdeeStore = tdeeStore;
+    }
+
+    /**
+     * Costs meals from ingredient prices of the profile's region. The first table calibrates each
+     * meal's ingredient quantities (its catalog cost at reference-region prices); later tables are
+     * applied as incremental re-costs.
+     */
+    public synchronized void setPrices(PriceTable table) {
+        if (pricing == null) pricing = new MealPricing(meals(), table);
+        else pricing.update(table);
+    }
+
+    /**
+     * New engine over the same prices and TDEE store with its own random state and pool caches,
+     * e.g. to run a second planner without taking draws from this one's Random.
+     */
+    public PlannerEngine fork() {
+        PlannerEngine e = new PlannerEngine();
+        e.pricing = pricing;
+        e.tdeeStore = tdeeStore;
+        e.tenants = tenants;
+        return e;
+    }
+
+    /**
+     * Restarts this engine's random draws (workout picks) from {@code seed}, so the next plan depends only
+     * on the profile and the seed, not on what this engine planned before.
+     */
+    public void reseed(long seed) {
+        rng.setSeed(seed);
+    }
+
+    public MealPricing pricing() {
+        return pricing;
+    }
+
+    /** Replaces the tenant overlays (keyed by canonical tenant id) as one immutable lookup. */
+    public void setTenants(Map<String, CatalogOverlay> overlays) {
+        tenants = Map.copyOf(overlays);
+    }
+
+    /** The profile's overlay, or null for the shared catalog. Unknown tenants are rejected by the caller. */
+    public CatalogOverlay overlay(UserProfile u) {
+        return u.getTenant() == null ? null : tenants.get(u.getTenant());
+    }
+
+    public Map<String, CatalogOverlay> tenants() {
+        return tenants;
+    }
+
+    /** Identifies the meal catalog and prices plans are generated from; 0 until prices are updated. */
+    public long catalogVersion() {
+        MealPricing p = pricing;
+        return p == null ? 0 : p.version();
+    }
+
+    /** Catalog meal at the region's price (unchanged without pricing). */
+    public Meal priced(Meal m, String region) {
+        MealPricing p = pricing;
+        return p == null || m.id < 0 ? m : m.withCost(p.cost(region, m));
+    }
+
+    /** The meal catalog at reference-region prices, indexed by meal id. */
+    public List<Meal> catalog() {
+        return meals();
+    }
+
+    /** Number of catalog meals that pass the profile's diet and cuisine filters. */
+    public int mealPoolSize(UserProfile u) {
+        CatalogOverlay overlay = overlay(u);
+        Stream<Meal> catalog = overlay == null ? meals().stream()
+                : Stream.concat(meals().stream().filter(overlay::keeps), overlay.extras().stream());
+        return (int) catalog.filter(m -> dietOk(u, m)).filter(m -> cuisineOk(u, m)).count();
+    }
+
+    /** Number of catalog exercises usable with the profile's equipment. */
+    public int exercisePoolSize(UserProfile u) {
+        return exerciseIndex().poolSize(equipmentMask(u));
+    }
+
+    /** Runs warmUp(): pools and index take milliseconds, so neither the pool nor the budget is needed. */
+    @Override
+    public void warmUp(ExecutorService pool, long budgetMillis) {
+        warmUp();
+    }
+
+    /**
+     * Precomputes the diet-flag meal pools with their rankings and the exercise index,
+     * then publishes them as immutable lookups. Every request only filters these by its own
+     * allergies, dislikes and cuisines, which keeps the precomputed order (no per-request sorting).
+     */
+    public void warmUp() {
+        Map<Integer, MealPools> meals = new HashMap<>();
+        for (int mask = 0; mask < 1 << 5; mask++) {
+            UserProfile rep = new UserProfile();
+            applyDietMask(rep, mask);
+            meals.put(mask, new MealPools(meals().stream().filter(m -> dietFlagsOk(rep, m)).collect(Collectors.toList())));
+        }
+        mealPoolsByDiet = Map.copyOf(meals);
+        MealPricing p = pricing;
+        if (p != null) {
+            for (int mask = 0; mask < 1 << 5; mask++) {
+                UserProfile rep = new UserProfile();
+                applyDietMask(rep, mask);
+                basePools(rep); // reference region
+            }
+        }
+        exerciseIndex();
+    }
+
+    /** vegetarian | vegan | lactoseFree | glutenFree | halal, one bit each. */
+    public static int dietMask(UserProfile u) {
+        int k = 0;
+        k |= u.getDiet().isVegetarian() ? 1 : 0;
+        k |= u.getDiet().isVegan() ? 1 << 1 : 0;
+        k |= u.getDiet().isLactoseFree() ? 1 << 2 : 0;
+        k |= u.getDiet().isGlutenFree() ? 1 << 3 : 0;
+        k |= u.getDiet().isHalal() ? 1 << 4 : 0;
+        return k;
+    }
+
+    /** gym | dumbbells | bands, one bit each (the only equipment ExerciseIndex.usable looks at). */
+    public static int equipmentMask(UserProfile u) {
+        int k = 0;
+        k |= u.getEquipment().isHasGym() ? 1 : 0;
+        k |= u.getEquipment().isHasDumbbells() ? 1 << 1 : 0;
+        k |= u.getEquipment().isHasResistanceBands() ? 1 << 2 : 0;
+        return k;
+    }
+
+    public static void applyDietMask(UserProfile u, int mask) {
+        u.getDiet().setVegetarian((mask & 1) != 0);
+        u.getDiet().setVegan((mask & 1 << 1) != 0);
+        u.getDiet().setLactoseFree((mask & 1 << 2) != 0);
+        u.getDiet().setGlutenFree((mask & 1 << 3) != 0);
+        u.getDiet().setHalal((mask & 1 << 4) != 0);
+    }
+
+    public static void applyEquipmentMask(UserProfile u, int mask) {
+        u.getEquipment().setHasGym((mask & 1) != 0);
+        u.getEquipment().setHasDumbbells((mask & 1 << 1) != 0);
+        u.getEquipment().setHasResistanceBands((mask & 1 << 2) != 0);
+    }
+
+    private MealPools mealPools(UserProfile u) {
+        MealPools base = basePools(u);
+        CatalogOverlay overlay = overlay(u);
+        if (overlay != null) {
+            // composed per request from the shared pools; nothing per tenant is cached
+            List<Meal> extras = overlay.extras().stream().filter(m -> dietFlagsOk(u, m)).collect(Collectors.toList());
+            base = base.overlay(overlay::keeps, extras);
+        }
+        if (u.getDiet().getAllergies().isEmpty() && u.getDiet().getDislikedIngredients().isEmpty()
+                && u.getDiet().getPreferredCuisines().isEmpty()) {
+            return base;
+        }
+        return base.filter(m -> ingredientsOk(u, m) && cuisineOk(u, m));
+    }
+
+    MealPools basePools(UserProfile u) {
+        int diet = dietMask(u);
+        MealPricing p = pricing;
+        if (p == null) {
+            MealPools base = mealPoolsByDiet.get(diet);
+            return base != null ? base
+                    : new MealPools(meals().stream().filter(m -> dietFlagsOk(u, m)).collect(Collectors.toList()));
+        }
+        MealPricing.PricedCatalog catalog = p.catalog(u.getRegion());
+        MealPools[] byDiet = pricedPools.computeIfAbsent(catalog, c -> new MealPools[1 << 5]);
+        MealPools pools = byDiet[diet];
+        if (pools == null) {
+            // racing threads build equal pools; MealPools is immutable, so either may win
+            pools = new MealPools(catalog.meals.stream().filter(m -> dietFlagsOk(u, m)).collect(Collectors.toList()));
+            byDiet[diet] = pools;
+        }
+        return pools;
+    }
+
+    private ExerciseIndex exerciseIndex() {
+        ExerciseIndex x = exerciseIndex;
+        if (x == null) {
+            synchronized (this) {
+                if (exerciseIndex == null) exerciseIndex = new ExerciseIndex(exercises());
+                x = exerciseIndex;
+            }
+        }
+        return x;
+    }
+
+    private List<Exercise> exercises() {
+        List<Exercise> x = dbExercises;
+        if (x == null) {
+            synchronized (this) {
+                if (dbExercises == null) dbExercises = List.copyOf(Database.exercises());
+                x = dbExercises;
+            }
+        }
+        return x;
+    }
+
+    private List<Meal> meals() {
+        List<Meal> m = dbMeals;
+        if (m == null) {
+            synchronized (this) {
+                if (dbMeals == null) {
+                    List<Meal> catalog = Database.meals();
+                    for (int i = 0; i < catalog.size(); i++) catalog.get(i).id = i;
+                    dbMeals = List.copyOf(catalog);
+                }
+                m = dbMeals;
+            }
+        }
+        return m;
+    }
+
     // ---------- core helpers ----------
 
-    private int targetCalories(UserProfile u) {
+    /** Goal-adjusted daily target from the user's adaptive TDEE when there is one, else from the formula. */
+    public int targetCalories(UserProfile u) {
+        TdeeStore store = tdeeStore;
+        double adaptive = store != null ? store.estimate(u.getUserId()) : Double.NaN;
+        double tdee = Double.isNaN(adaptive) ? formulaTdee(u) : adaptive;
+        double adj = switch (u.getGoal() == null ? "LOSE_FAT" : u.getGoal()) {
+            case "LOSE_FAT" -> -400;
+            case "GAIN_MUSCLE" -> 300;
+            default -> 0;
+        };
+        int target = (int) Math.round(tdee + adj);
+        return Math.max(1400, Math.min(3500, target));
+    }
+
+    public double formulaTdee(UserProfile u) {
         // Mifflin–St Jeor
-        double s = ("FEMALE".equalsIgnoreCase(u.getSex())) ? -161 : 5;
+        double s = "FEMALE".equals(u.getSex()) ? -161 : 5;
         double bmr = 10 * u.getWeightKg() + 6.25 * u.getHeightCm() - 5 * u.getAge() + s;
-        double activity = switch (u.getActivityLevel() == null ? "SEDENTARY" : u.getActivityLevel().toUpperCase()) {
+        double activity = switch (u.getActivityLevel() == null ? "SEDENTARY" : u.getActivityLevel()) {
             case "LIGHT" -> 1.375;
             case "MODERATE" -> 1.55;
             case "ACTIVE" -> 1.725;
             case "VERY_ACTIVE" -> 1.9;
             default -> 1.2;
         };
-        double tdee = bmr * activity;
-        double adj = switch (u.getGoal() == null ? "LOSE_FAT" : u.getGoal().toUpperCase()) {
-            case "LOSE_FAT" -> -400;
-            case "GAIN_MUSCLE" -> 300;
-            default -> 0;
-        };
-        int target = (int) Math.round(tdee + adj);
-        return Math.max(1400, Math.min(3500, target));
+        return bmr * activity;
     }
 
-    private boolean[] pickWorkoutDays(int n) {
+    public boolean[] pickWorkoutDays(int n) {
         boolean[] arr = new boolean[7];
         int[][] patterns = {
                 {1, 0, 1, 0, 1, 0, 0}, // 3
@@ -94,76 +394,144 @@ public class PlannerEngine {
         return b;
     }
 
-    private List<Exercise> planWorkoutForDay(UserProfile u) {
-        List<Exercise> pool = dbExercises.stream().filter(e -> equipOk(u, e)).collect(Collectors.toList());
+    private List<Exercise> planWorkoutForDay(UserProfile u, TrainingState state) {
+        int[] weekGroups = state.groupCounts;
+        ExerciseIndex index = exerciseIndex();
+        int mask = equipmentMask(u);
+        int level = ExerciseIndex.levelId(u.getExperience());
         List<Exercise> plan = new ArrayList<>();
 
-        addIfExists(pool, plan, "Jumping Jacks");
-        addIfExists(pool, plan, "Plank");
+        addIfExists(index, mask, plan, "Jumping Jacks");
+        addIfExists(index, mask, plan, "Plank");
 
         String[] groups = {"Push", "Pull", "Legs", "Full Body", "Cardio"};
         for (String g : groups) {
-            pickByGroup(pool, plan, g, u.getExperience());
+            int id = ExerciseIndex.groupId(g);
+            if (!state.recovering(id)) pickByGroup(index, mask, plan, id, level);
         }
 
         int targetMin = Math.max(10, u.getSchedule().getMinutesPerWorkout());
         int total = plan.stream().mapToInt(e -> e.estMinutes).sum();
 
-        if (total > targetMin) {
-            plan.sort(Comparator.comparingInt(e -> e.estMinutes)); // drop shortest first
-            while (total > targetMin && plan.size() > 3) {
-                Exercise rem = plan.remove(0);
-                total -= rem.estMinutes;
+        // over time: drop from the muscle group trained most this week so far (longest first)
+        while (total > targetMin && plan.size() > 3) {
+            Exercise rem = mostTrained(plan, weekGroups);
+            plan.remove(rem);
+            total -= rem.estMinutes;
+        }
+
+        fillMinutes(index, mask, plan, targetMin - total, weekGroups);
+
+        for (Exercise e : plan) {
+            int g = ExerciseIndex.groupId(e.muscleGroup);
+            if (g >= 0) {
+                weekGroups[g]++;
+                state.lastTrained[g] = state.day;
             }
         }
+        return plan;
+    }
 
-        while (total < targetMin) {
-            Optional<Exercise> add = pool.stream().filter(e -> e.muscleGroup.equals("Cardio") || e.muscleGroup.equals("Core"))
-                    .skip(rng.nextInt(Math.max(1, Math.max(1, pool.size() / 4)))).findAny();
-            if (add.isEmpty()) break;
-            plan.add(add.get());
-            total += add.get().estMinutes;
-            if (plan.size() > 10) break;
+    private Exercise mostTrained(List<Exercise> plan, int[] weekGroups) {
+        Exercise best = null;
+        int bestCount = -1;
+        for (Exercise e : plan) {
+            int g = ExerciseIndex.groupId(e.muscleGroup);
+            int count = g >= 0 ? weekGroups[g] : 0;
+            if (count > bestCount || (count == bestCount && e.estMinutes > best.estMinutes)) {
+                best = e;
+                bestCount = count;
+            }
         }
+        return best;
+    }
 
-        return plan;
+    /**
+     * Time-budget solver: tops the plan up with Cardio/Core fillers so it lasts exactly {@code gap} more
+     * minutes, never repeating an exercise already in the day. If no filler combination fits the gap, up
+     * to MAX_SWAPS more main exercises (most-trained group first) are traded for fillers; failing that,
+     * the closest reachable total is used.
+     */
+    private void fillMinutes(ExerciseIndex index, int mask, List<Exercise> plan, int gap, int[] weekGroups) {
+        int[] durations = index.fillerMinutes(mask);
+        int[] free = freeFillers(index, mask, plan);
+        List<Exercise> removed = new ArrayList<>();
+        int g = gap;
+        for (int swaps = 0; ; swaps++) {
+            int[] fill = index.fill(mask, g, MAX_EXERCISES - plan.size(), free);
+            if (total(durations, fill) == g) {
+                addFillers(index, mask, plan, fill);
+                return;
+            }
+            if (swaps == MAX_SWAPS || plan.size() <= 3) break;
+            Exercise rem = mostTrained(plan, weekGroups);
+            plan.remove(rem);
+            removed.add(rem);
+            int slot = index.fillerSlot(mask, rem);
+            if (slot >= 0) free[slot]++;
+            g += rem.estMinutes;
+        }
+        plan.addAll(removed);
+        free = freeFillers(index, mask, plan);
+        addFillers(index, mask, plan, index.fill(mask, gap, MAX_EXERCISES - plan.size(), free));
+    }
+
+    /** Fillers of each duration not yet in the day; O(plan size). */
+    private static int[] freeFillers(ExerciseIndex index, int mask, List<Exercise> plan) {
+        int[] durations = index.fillerMinutes(mask);
+        int[] free = new int[durations.length];
+        for (int i = 0; i < durations.length; i++) free[i] = index.fillers(mask, i).length;
+        for (Exercise e : plan) {
+            int slot = index.fillerSlot(mask, e);
+            if (slot >= 0 && free[slot] > 0) free[slot]--;
+        }
+        return free;
+    }
+
+    private static int total(int[] durations, int[] counts) {
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) total += counts[i] * durations[i];
+        return total;
     }
 
-    private boolean equipOk(UserProfile u, Exercise e) {
-        switch (e.required) {
-            case "gym":
-                return u.getEquipment().isHasGym();
-            case "dumbbells":
-                return u.getEquipment().isHasDumbbells() || u.getEquipment().isHasGym();
-            case "bands":
-                return u.getEquipment().isHasResistanceBands() || u.getEquipment().isHasGym();
-            default:
-                return true;
+    private void addFillers(ExerciseIndex index, int mask, List<Exercise> plan, int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            for (int n = 0; n < counts[i]; n++) plan.add(pickUnused(index.fillers(mask, i), plan));
         }
     }
 
-    private void addIfExists(List<Exercise> pool, List<Exercise> plan, String name) {
-        pool.stream().filter(ex -> ex.name.equals(name)).findFirst().ifPresent(plan::add);
+    /**
+     * Random option not already in the day: a cursor from a random start skips the day's exercises, so
+     * it stops within plan.size() + 1 steps however long {@code options} is. Repeats only if all are used.
+     */
+    private Exercise pickUnused(Exercise[] options, List<Exercise> plan) {
+        int start = rng.nextInt(options.length);
+        for (int k = 0; k < options.length && k <= plan.size(); k++) {
+            Exercise e = options[(start + k) % options.length];
+            if (!plan.contains(e)) return e;
+        }
+        return options[start];
     }
 
-    private void pickByGroup(List<Exercise> pool, List<Exercise> plan, String group, String exp) {
-        List<Exercise> g = pool.stream().filter(e -> e.muscleGroup.equals(group)).collect(Collectors.toList());
-        if (g.isEmpty()) return;
-        List<Exercise> lvl = g.stream().filter(e -> e.level.equalsIgnoreCase(exp == null ? "BEGINNER" : exp)).collect(Collectors.toList());
-        List<Exercise> src = lvl.isEmpty() ? g : lvl;
-        plan.add(src.get(rng.nextInt(src.size())));
+    private void addIfExists(ExerciseIndex index, int mask, List<Exercise> plan, String name) {
+        Exercise e = index.named(name, mask);
+        if (e != null) plan.add(e);
     }
 
-    private void planMealsForDay(UserProfile u, DayPlan d) {
-        List<Meal> pool = dbMeals.stream()
-                .filter(m -> dietOk(u, m))
-                .filter(m -> cuisineOk(u, m))
-                .collect(Collectors.toList());
+    private void pickByGroup(ExerciseIndex index, int mask, List<Exercise> plan, int group, int level) {
+        Exercise[] src = index.candidates(mask, group, level);
+        if (src.length == 0) return;
+        plan.add(pickUnused(src, plan));
+    }
+
+    /** @return greedy iterations: meals added by the fill loop plus meals removed to fit budget/target */
+    private int planMealsForDay(UserProfile u, DayPlan d, MealPools pools) {
+        List<Meal> pool = pools.pool;
 
         List<Meal> dayMeals = new ArrayList<>();
 
-        pickTopBy(pool, dayMeals, m -> m.protein / (double) Math.max(1, m.calories), 1);
-        pickTopBy(pool, dayMeals, m -> m.carbs / (double) Math.max(1, m.calories), 1);
+        pickTopBy(pools.byProteinDensity, dayMeals, 1);
+        pickTopBy(pools.byCarbDensity, dayMeals, 1);
         pickBreakfast(pool, dayMeals);
         pickSnack(pool, dayMeals);
 
@@ -173,10 +541,9 @@ public class PlannerEngine {
         int kcal = dayMeals.stream().mapToInt(m -> m.calories).sum();
         double cost = dayMeals.stream().mapToDouble(m -> m.cost).sum();
 
-        List<Meal> affordable = pool.stream().sorted(Comparator.comparingDouble(m -> m.cost)).collect(Collectors.toList());
         int safety = 0;
         while (kcal < target - 150 && cost <= budget && safety < 20) {
-            Meal add = pickAffordable(affordable, target - kcal, budget - cost);
+            Meal add = pickAffordable(pools, target - kcal, budget - cost);
             if (add == null) break;
             dayMeals.add(add);
             kcal += add.calories;
@@ -184,12 +551,14 @@ public class PlannerEngine {
             safety++;
         }
 
+        int removed = 0;
         if (cost > budget || kcal > target + 200) {
             dayMeals.sort(Comparator.comparingDouble(m -> scoreRemovePenalty(m)));
             while ((cost > budget || kcal > target + 200) && dayMeals.size() > 3) {
                 Meal rem = dayMeals.remove(dayMeals.size() - 1);
                 kcal -= rem.calories;
                 cost -= rem.cost;
+                removed++;
             }
         }
 
@@ -199,41 +568,47 @@ public class PlannerEngine {
         d.protein = dayMeals.stream().mapToInt(m -> m.protein).sum();
         d.carbs = dayMeals.stream().mapToInt(m -> m.carbs).sum();
         d.fat = dayMeals.stream().mapToInt(m -> m.fat).sum();
+        return safety + removed;
     }
 
     private boolean dietOk(UserProfile dp, Meal m) {
+        return dietFlagsOk(dp, m) && ingredientsOk(dp, m);
+    }
+
+    boolean dietFlagsOk(UserProfile dp, Meal m) {
         if (dp.getDiet().isVegan() && !m.vegan) return false;
         if (dp.getDiet().isVegetarian() && !m.vegetarian) return false;
         if (dp.getDiet().isHalal() && !m.halalFriendly) return false;
         if (dp.getDiet().isLactoseFree() && !m.lactoseFree) return false;
         if (dp.getDiet().isGlutenFree() && !m.glutenFree) return false;
-        for (String a : dp.getDiet().getAllergies())
-            if (m.ingredients.stream().anyMatch(ing -> ing.equalsIgnoreCase(a))) return false;
-        for (String d : dp.getDiet().getDislikedIngredients())
-            if (m.ingredients.stream().anyMatch(ing -> ing.equalsIgnoreCase(d))) return false;
         return true;
     }
 
-    private boolean cuisineOk(UserProfile dp, Meal m) {
+    /**
+     * Allergy and dislike check only; diet flags are handled by dietOk.
+     * Profiles are canonical (lower-case tokens, see ProfileNormalizer), as are catalog ingredients.
+     */
+    public boolean ingredientsOk(UserProfile dp, Meal m) {
+        for (String a : dp.getDiet().getAllergies()) if (m.ingredients.contains(a)) return false;
+        for (String d : dp.getDiet().getDislikedIngredients()) if (m.ingredients.contains(d)) return false;
+        return true;
+    }
+
+    boolean cuisineOk(UserProfile dp, Meal m) {
         if (dp.getDiet().getPreferredCuisines().isEmpty()) return true;
-        for (String c : dp.getDiet().getPreferredCuisines()) if (m.cuisine.equalsIgnoreCase(c)) return true;
-        if (dp.getRegion() != null && dp.getRegion().equalsIgnoreCase("India"))
-            return m.cuisine.toLowerCase().contains("indian");
-        return false;
+        if (dp.getDiet().getPreferredCuisines().contains(m.cuisineKey)) return true;
+        return "india".equals(dp.getRegion()) && m.cuisineKey.contains("indian");
     }
 
-    private void pickTopBy(List<Meal> pool, List<Meal> target, ToDoubleFunction<Meal> key, int count) {
-    // Sort descending by the double value produced by the provided key
-    List<Meal> sorted = pool.stream()
-            .sorted((a, b) -> Double.compare(key.applyAsDouble(b), key.applyAsDouble(a)))
-            .collect(Collectors.toList());
-    for (Meal m : sorted) {
-        if (!target.contains(m)) {
-            target.add(m);
-            if (--count == 0) break;
+    private void pickTopBy(List<Meal> ranked, List<Meal> target, int count) {
+        // ranked is already sorted best-first (see MealPools)
+        for (Meal m : ranked) {
+            if (!target.contains(m)) {
+                target.add(m);
+                if (--count == 0) break;
+            }
         }
     }
-}
 
 
     private void pickBreakfast(List<Meal> pool, List<Meal> target) {
@@ -252,11 +627,10 @@ public class PlannerEngine {
         pick.ifPresent(m -> { if (!target.contains(m)) target.add(m); });
     }
 
-    private Meal pickAffordable(List<Meal> affordable, int kcalGap, double budgetLeft) {
-        for (Meal m : affordable) {
-            if (m.cost <= budgetLeft && m.calories <= kcalGap + 250) return m;
-        }
-        return null;
+    /** Cheapest meal that fits the remaining budget and doesn't overshoot the calorie gap by > 250. */
+    private Meal pickAffordable(MealPools pools, int kcalGap, double budgetLeft) {
+        int i = pools.byCostColumns.firstFit(kcalGap + 250, budgetLeft);
+        return i < 0 ? null : pools.byCost.get(i);
     }
 
     private double scoreRemovePenalty(Meal m) {
@@ -290,6 +664,7 @@ public class PlannerEngine {
         public int weeklyTargetCalories;
         public double weeklyBudget;
         public double weeklyCost;
+        public boolean fastPlan; // served from a precomputed template under overload
     }
 
     public static class Exercise {
@@ -321,13 +696,34 @@ public class PlannerEngine {
         public boolean halalFriendly = true;
         public boolean lactoseFree = false;
         public boolean glutenFree = false;
+        // lower-cased cuisine, for matching canonical preferences; not serialized (package-private)
+        String cuisineKey;
+        // position in the catalog, shared by scaled and priced copies; -1 outside the catalog
+        int id = -1;
 
         public static Meal of(String n, String cui, boolean veg, boolean vgn, int kcal, int p, int c, int f, double inr,
                               boolean halal, boolean lf, boolean gf, String... ingr) {
-            Meal m = new Meal(); m.name = n; m.cuisine = cui; m.vegetarian = veg; m.vegan = vgn; m.calories = kcal;
+            Meal m = new Meal(); m.name = n; m.cuisine = cui; m.cuisineKey = cui.toLowerCase(Locale.ROOT); m.vegetarian = veg; m.vegan = vgn; m.calories = kcal;
             m.protein = p; m.carbs = c; m.fat = f; m.cost = inr; m.halalFriendly = halal; m.lactoseFree = lf; m.glutenFree = gf;
             m.ingredients.addAll(Arrays.asList(ingr)); return m;
         }
+
+        /** Copy with portions scaled by {@code factor}; ingredients are shared, not copied. */
+        public Meal scaled(double factor) {
+            Meal m = new Meal(); m.name = name; m.cuisine = cuisine; m.cuisineKey = cuisineKey; m.id = id; m.vegetarian = vegetarian; m.vegan = vegan;
+            m.calories = (int) Math.round(calories * factor); m.protein = (int) Math.round(protein * factor);
+            m.carbs = (int) Math.round(carbs * factor); m.fat = (int) Math.round(fat * factor);
+            m.cost = Math.round(cost * factor * 100.0) / 100.0;
+            m.halalFriendly = halalFriendly; m.lactoseFree = lactoseFree; m.glutenFree = glutenFree;
+            m.ingredients = ingredients; return m;
+        }
+
+        /** Copy at another price (regional pricing); portions unchanged. */
+        public Meal withCost(double newCost) {
+            Meal m = scaled(1.0);
+            m.cost = newCost;
+            return m;
+        }
     }
 
     // ---------- Tiny Database copy ----------
@@ -392,9 +788,103 @@ public class PlannerEngine {
         }
     }
 
-    // tiny functional wrapper for lambda typing
-    @FunctionalInterface
-    private interface ToDoubleFunction<T> {
-        double applyAsDouble(T value);
+    /**
+     * Training history carried from day to day (and week to week for multi-week programs):
+     * exercises per muscle group for balancing, and the last day each group was trained.
+     * With recoveryDays > 0, a strength group is not trained again until that many days have passed.
+     */
+    public static class TrainingState {
+        final int[] groupCounts = new int[ExerciseIndex.GROUPS.length];
+        final int[] lastTrained = new int[ExerciseIndex.GROUPS.length];
+        final int recoveryDays;
+        int day;
+
+        public TrainingState(int recoveryDays) {
+            this.recoveryDays = recoveryDays;
+            Arrays.fill(lastTrained, Integer.MIN_VALUE / 2);
+        }
+
+        /** Starts a new week's group balance; recovery windows carry over. */
+        public void newWeek() {
+            Arrays.fill(groupCounts, 0);
+        }
+
+        boolean recovering(int group) {
+            if (recoveryDays <= 0 || ExerciseIndex.isFiller(group)) return false;
+            return day - lastTrained[group] <= recoveryDays;
+        }
+    }
+
+    /**
+     * Diet-filtered meal pool plus the orderings planMealsForDay needs, each sorted once.
+     * filter() keeps every ordering intact, so a filtered pool ranks exactly like a freshly sorted one;
+     * overlay() merges a tenant's sorted extras into them, ranking like the tenant's catalog sorted afresh.
+     * byCost is also kept as MealColumns for the affordable-meal scan.
+     */
+    static class MealPools {
+        final List<Meal> pool;
+        final List<Meal> byProteinDensity;
+        final List<Meal> byCarbDensity;
+        final List<Meal> byCost;
+        final MealColumns byCostColumns;
+
+        private static final Comparator<Meal> PROTEIN_DENSITY =
+                Comparator.comparingDouble((Meal m) -> m.protein / (double) Math.max(1, m.calories)).reversed();
+        private static final Comparator<Meal> CARB_DENSITY =
+                Comparator.comparingDouble((Meal m) -> m.carbs / (double) Math.max(1, m.calories)).reversed();
+        private static final Comparator<Meal> COST = Comparator.comparingDouble(m -> m.cost);
+
+        MealPools(List<Meal> pool) {
+            this(pool, sorted(pool, PROTEIN_DENSITY), sorted(pool, CARB_DENSITY), sorted(pool, COST));
+        }
+
+        private MealPools(List<Meal> pool, List<Meal> byProteinDensity, List<Meal> byCarbDensity, List<Meal> byCost) {
+            this.pool = List.copyOf(pool);
+            this.byProteinDensity = List.copyOf(byProteinDensity);
+            this.byCarbDensity = List.copyOf(byCarbDensity);
+            this.byCost = List.copyOf(byCost);
+            this.byCostColumns = new MealColumns(this.byCost);
+        }
+
+        MealPools filter(Predicate<Meal> keep) {
+            Set<Meal> kept = new HashSet<>();
+            for (Meal m : pool) if (keep.test(m)) kept.add(m);
+            return new MealPools(only(pool, kept), only(byProteinDensity, kept), only(byCarbDensity, kept), only(byCost, kept));
+        }
+
+        /**
+         * The kept meals plus {@code extras} (appended to pool): the extras are sorted on their own and
+         * merged into each ordering, O(pool + extras log extras). Ties rank kept meals first, as a stable
+         * sort of the combined pool would.
+         */
+        MealPools overlay(Predicate<Meal> keep, List<Meal> extras) {
+            MealPools kept = filter(keep);
+            if (extras.isEmpty()) return kept;
+            List<Meal> pool = new ArrayList<>(kept.pool);
+            pool.addAll(extras);
+            return new MealPools(pool,
+                    merge(kept.byProteinDensity, sorted(extras, PROTEIN_DENSITY), PROTEIN_DENSITY),
+                    merge(kept.byCarbDensity, sorted(extras, CARB_DENSITY), CARB_DENSITY),
+                    merge(kept.byCost, sorted(extras, COST), COST));
+        }
+
+        private static List<Meal> only(List<Meal> ordered, Set<Meal> kept) {
+            return ordered.stream().filter(kept::contains).collect(Collectors.toList());
+        }
+
+        private static List<Meal> sorted(List<Meal> pool, Comparator<Meal> order) {
+            return pool.stream().sorted(order).collect(Collectors.toList());
+        }
+
+        private static List<Meal> merge(List<Meal> a, List<Meal> b, Comparator<Meal> order) {
+            List<Meal> out = new ArrayList<>(a.size() + b.size());
+            int i = 0, j = 0;
+            while (i < a.size() && j < b.size()) {
+                out.add(order.compare(b.get(j), a.get(i)) < 0 ? b.get(j++) : a.get(i++));
+            }
+            while (i < a.size()) out.add(a.get(i++));
+            while (j < b.size()) out.add(b.get(j++));
+            return out;
+        }
     }
 }
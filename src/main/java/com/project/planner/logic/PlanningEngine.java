@@ -0,0 +1,42 @@
+package com.project.planner.logic;
+
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.UserProfile;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * PlanningEngine
+ * - Strategy that turns a profile and its daily calorie target into a week of workouts and meals.
+ * - PlannerEngine ("greedy") serves production; other implementations are candidates that can be
+ *   compared against it on live traffic in shadow mode before they are adopted.
+ */
+public interface PlanningEngine {
+
+    String name();
+
+    /** @return the week, or null if this engine cannot plan for the profile */
+    WeeklyPlan plan(UserProfile u, int targetKcal);
+
+    /**
+     * Builds this engine's caches ahead of traffic, on {@code pool} where that helps, stopping after
+     * about {@code budgetMillis}; whatever is left is built on first use. Nothing by default.
+     */
+    default void warmUp(ExecutorService pool, long budgetMillis) throws InterruptedException {
+    }
+
+    /**
+     * Candidate by name, built on {@code primary}'s catalog, prices and TDEE store but with its own
+     * random state and caches, so running it never perturbs the plans {@code primary} serves.
+     */
+    static PlanningEngine candidate(String name, PlannerEngine primary) {
+        switch (name) {
+            case "greedy":
+                return primary.fork();
+            case "template":
+                return new FastPlannerEngine(primary.fork());
+            default:
+                throw new IllegalArgumentException("Unknown planning engine '" + name + "' (greedy, template)");
+        }
+    }
+}
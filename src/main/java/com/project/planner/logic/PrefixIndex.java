@@ -0,0 +1,128 @@
+package com.project.planner.logic;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * PrefixIndex
+ * - Immutable trie packed into flat arrays: a node is an index, its children are contiguous and
+ *   sorted by label, so there are no per-node objects or maps after construction.
+ * - Keys map to entries; several keys may share a target (e.g. a synonym and the term it stands for).
+ * - Every node stores its best MAX_RESULTS entries (distinct targets) precomputed, so a lookup is one
+ *   child binary search per typed character plus a copy of the answer.
+ * - Entries are ranked by their position in the constructor's list (best first).
+ */
+public final class PrefixIndex {
+
+    public static final int MAX_RESULTS = 10;
+
+    private final char[] label;      // edge label from the parent; root unused
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;    // node i's answer is top[topStart[i] .. topStart[i + 1])
+    private final int[] top;         // entry ids, best first
+
+    /**
+     * @param keys    per entry, already normalized (case etc. is the caller's business)
+     * @param targets per entry; at most one entry per target is returned for a prefix
+     */
+    public PrefixIndex(List<String> keys, int[] targets) {
+        if (keys.size() != targets.length) throw new IllegalArgumentException("one target per key");
+        Node root = new Node();
+        for (int id = 0; id < keys.size(); id++) {
+            Node n = root;
+            for (char c : keys.get(id).toCharArray()) n = n.children.computeIfAbsent(c, k -> new Node());
+            n.entries.add(id);
+        }
+        rank(root, targets);
+
+        // breadth-first numbering keeps each node's children next to each other
+        List<Node> order = new ArrayList<>();
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node n = queue.poll();
+            n.index = order.size();
+            order.add(n);
+            queue.addAll(n.children.values());
+        }
+        int nodes = order.size();
+        label = new char[nodes];
+        firstChild = new int[nodes];
+        childCount = new int[nodes];
+        topStart = new int[nodes + 1];
+        int answers = 0;
+        for (Node n : order) answers += n.top.length;
+        top = new int[answers];
+        for (int i = 0, at = 0; i < nodes; i++) {
+            Node n = order.get(i);
+            childCount[i] = n.children.size();
+            firstChild[i] = n.children.isEmpty() ? -1 : n.children.firstEntry().getValue().index;
+            for (Map.Entry<Character, Node> e : n.children.entrySet()) label[e.getValue().index] = e.getKey();
+            topStart[i] = at;
+            System.arraycopy(n.top, 0, top, at, n.top.length);
+            at += n.top.length;
+        }
+        topStart[nodes] = answers;
+    }
+
+    /** @return up to {@code limit} (at most MAX_RESULTS) entry ids whose key starts with {@code prefix}, best first */
+    public int[] complete(String prefix, int limit) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) node = child(node, prefix.charAt(i));
+        if (node < 0) return new int[0];
+        int from = topStart[node];
+        return Arrays.copyOfRange(top, from, Math.min(topStart[node + 1], from + Math.max(0, limit)));
+    }
+
+    public int nodeCount() {
+        return label.length;
+    }
+
+    private int child(int node, char c) {
+        int lo = firstChild[node], hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (label[mid] < c) lo = mid + 1;
+            else if (label[mid] > c) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Post-order: a node's answer is the best MAX_RESULTS distinct targets among its own entries and
+     * its children's answers. Truncating children first is safe: a target in the parent's answer has
+     * fewer than MAX_RESULTS better targets in the child holding its best entry.
+     */
+    private static void rank(Node n, int[] targets) {
+        List<Integer> candidates = new ArrayList<>(n.entries);
+        for (Node c : n.children.values()) {
+            rank(c, targets);
+            for (int id : c.top) candidates.add(id);
+        }
+        candidates.sort(null); // entry id order is rank order
+        Set<Integer> seen = new HashSet<>();
+        int[] out = new int[Math.min(MAX_RESULTS, candidates.size())];
+        int k = 0;
+        for (int id : candidates) {
+            if (k == out.length) break;
+            if (seen.add(targets[id])) out[k++] = id;
+        }
+        n.top = Arrays.copyOf(out, k);
+    }
+
+    private static final class Node {
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        final List<Integer> entries = new ArrayList<>(1);
+        int[] top;
+        int index;
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.planner.logic;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * PriceTable
+ * - Immutable ingredient unit prices by region, read from "region,ingredient,price" CSV lines.
+ * - A region without a table of its own uses region ANY_REGION; an ingredient a region does not list
+ *   uses that region's ANY_INGREDIENT price, then FALLBACK_PRICE.
+ * - Regions and ingredients are matched as canonical lower-case tokens; null region is REFERENCE_REGION.
+ */
+public class PriceTable {
+
+    public static final String REFERENCE_REGION = "india";
+    public static final String ANY_REGION = "*";
+    public static final String ANY_INGREDIENT = "*";
+    public static final double FALLBACK_PRICE = 20.0;
+
+    private final Map<String, Map<String, Double>> byRegion;
+
+    public PriceTable(Map<String, Map<String, Double>> byRegion) {
+        Map<String, Map<String, Double>> copy = new HashMap<>();
+        byRegion.forEach((region, prices) -> copy.put(region, Map.copyOf(prices)));
+        this.byRegion = Map.copyOf(copy);
+    }
+
+    /** Blank lines and lines starting with '#' are skipped; a repeated entry replaces the earlier one. */
+    public static PriceTable parse(Reader in) throws IOException {
+        Map<String, Map<String, Double>> byRegion = new HashMap<>();
+        BufferedReader lines = new BufferedReader(in);
+        String line;
+        int n = 0;
+        while ((line = lines.readLine()) != null) {
+            n++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] cells = trimmed.split(",");
+            if (cells.length != 3) throw new IOException("line " + n + ": expected region,ingredient,price");
+            try {
+                double price = Double.parseDouble(cells[2].trim());
+                if (!(price >= 0)) throw new NumberFormatException("negative");
+                byRegion.computeIfAbsent(key(cells[0]), k -> new HashMap<>()).put(key(cells[1]), price);
+            } catch (NumberFormatException e) {
+                throw new IOException("line " + n + ": bad price '" + cells[2].trim() + "'");
+            }
+        }
+        return new PriceTable(byRegion);
+    }
+
+    /** The table a region's prices come from: its own, else ANY_REGION. */
+    public String resolve(String region) {
+        String r = region == null || region.isBlank() ? REFERENCE_REGION : key(region);
+        return byRegion.containsKey(r) ? r : ANY_REGION;
+    }
+
+    /** Price of an ingredient in a resolved region (see {@link #resolve(String)}). */
+    public double price(String resolvedRegion, String ingredient) {
+        Map<String, Double> prices = byRegion.getOrDefault(resolvedRegion, Map.of());
+        Double p = prices.get(ingredient);
+        if (p == null) p = prices.get(ANY_INGREDIENT);
+        return p != null ? p : FALLBACK_PRICE;
+    }
+
+    /** Prices the region lists, including its ANY_INGREDIENT price if it has one. */
+    public Map<String, Double> prices(String resolvedRegion) {
+        return byRegion.getOrDefault(resolvedRegion, Map.of());
+    }
+
+    /** Same table with one price set; used for point updates from a price feed. */
+    public PriceTable with(String region, String ingredient, double price) {
+        Map<String, Map<String, Double>> copy = new HashMap<>(byRegion);
+        Map<String, Double> prices = new HashMap<>(copy.getOrDefault(key(region), Map.of()));
+        prices.put(key(ingredient), price);
+        copy.put(key(region), prices);
+        return new PriceTable(copy);
+    }
+
+    private static String key(String s) {
+        return s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.planner.logic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ScoringKernel
+ * - Selection primitives over MealColumns; every implementation returns exactly what the scalar
+ *   loop below returns.
+ * - SCALAR is plain Java. The Vector API kernel (VectorScoringKernel, built by -Psimd) is used when it
+ *   was built and the JVM was started with --add-modules jdk.incubator.vector, unless
+ *   -Dplanner.simd=false; otherwise SCALAR.
+ */
+public interface ScoringKernel {
+
+    ScoringKernel SCALAR = new ScoringKernel() {
+        @Override
+        public String name() { return "scalar"; }
+
+        @Override
+        public int firstFit(MealColumns c, double maxKcal, double maxCost) {
+            for (int i = 0; i < c.size; i++) {
+                if (c.cost[i] <= maxCost && c.calories[i] <= maxKcal) return i;
+            }
+            return -1;
+        }
+    };
+
+    /** The fastest kernel this JVM supports; resolved once. */
+    static ScoringKernel preferred() {
+        return Holder.PREFERRED;
+    }
+
+    String name();
+
+    /** @return index of the first candidate with calories <= maxKcal and cost <= maxCost, or -1 */
+    int firstFit(MealColumns c, double maxKcal, double maxCost);
+
+    final class Holder {
+        private static final Logger log = LoggerFactory.getLogger(ScoringKernel.class);
+        static final ScoringKernel PREFERRED = load();
+
+        private Holder() {}
+
+        private static ScoringKernel load() {
+            if (!Boolean.parseBoolean(System.getProperty("planner.simd", "true"))) return SCALAR;
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                log.info("jdk.incubator.vector not in the JVM, using scalar meal scoring");
+                return SCALAR;
+            }
+            try {
+                return (ScoringKernel) Class.forName("com.project.planner.logic.VectorScoringKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                log.info("Vector API kernel not built (-Psimd), using scalar meal scoring");
+                return SCALAR;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("Vector API kernel unavailable, using scalar meal scoring: {}", e.toString());
+                return SCALAR;
+            }
+        }
+    }
+}
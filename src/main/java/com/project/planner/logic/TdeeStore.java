@@ -0,0 +1,204 @@
+package com.project.planner.logic;
+
+import java.util.Arrays;
+
+/**
+ * TdeeStore
+ * - Per-user adaptive TDEE estimate from logged body weight and intake, updated in O(1) per log entry.
+ * - Each user is a fixed handful of primitives: a smoothed weight trend, a smoothed TDEE, the last
+ *   calorie target served, the day of the last log and an observation count. History is never kept.
+ * - Each log turns the change in trend weight since the previous log into an observed TDEE
+ *   (intake - 7700 kcal per kg gained, per day), which is folded into the estimate by an EWMA.
+ * - Smoothing is per day, so a log after a 5-day gap moves the trend as much as 5 daily logs would.
+ * - Users are keyed by a 64-bit hash of their id in striped open-addressing tables (about 60 bytes
+ *   per user); a million users take ~60 MB and a lookup is one short probe under a stripe lock.
+ */
+public class TdeeStore {
+
+    public static final double KCAL_PER_KG = 7700;
+    /** Estimates based on fewer observations are not used for targeting. */
+    public static final int MIN_OBSERVATIONS = 3;
+
+    private static final double WEIGHT_ALPHA = 0.1;   // per day
+    private static final double TDEE_ALPHA = 0.2;     // per observation
+    private static final double MIN_TDEE = 800, MAX_TDEE = 6000;
+    private static final int MAX_GAP_DAYS = 60;       // a longer gap restarts the trend
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TdeeStore() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+    }
+
+    /** Remembers the target the user was given, used as intake for logs that don't report one. */
+    public void recordTarget(String userId, int targetKcal) {
+        long key = key(userId);
+        Stripe s = stripe(key);
+        synchronized (s) {
+            int i = s.slot(key, true); // may grow the arrays, so resolve it before indexing
+            s.target[i] = targetKcal;
+        }
+    }
+
+    /**
+     * @param epochDay    day of the weigh-in; logs not after the previous one are ignored
+     * @param intakeKcal  average daily intake since the previous log, or <= 0 to assume the last target
+     */
+    public void recordWeight(String userId, int epochDay, double weightKg, double intakeKcal) {
+        if (!(weightKg > 0)) return;
+        long key = key(userId);
+        Stripe s = stripe(key);
+        synchronized (s) {
+            int i = s.slot(key, true);
+            int gap = epochDay - s.lastDay[i];
+            if (s.lastDay[i] == Stripe.NEVER || gap > MAX_GAP_DAYS) {
+                s.trend[i] = (float) weightKg;
+                s.lastDay[i] = epochDay;
+                return;
+            }
+            if (gap <= 0) return;
+
+            double previous = s.trend[i];
+            double trend = previous + (1 - Math.pow(1 - WEIGHT_ALPHA, gap)) * (weightKg - previous);
+            s.trend[i] = (float) trend;
+            s.lastDay[i] = epochDay;
+
+            double intake = intakeKcal > 0 ? intakeKcal : s.target[i];
+            if (intake <= 0) return;
+            double observed = intake - KCAL_PER_KG * (trend - previous) / gap;
+            observed = Math.max(MIN_TDEE, Math.min(MAX_TDEE, observed));
+            s.tdee[i] = s.observations[i] == 0 ? (float) observed
+                    : (float) (s.tdee[i] + TDEE_ALPHA * (observed - s.tdee[i]));
+            if (s.observations[i] < Short.MAX_VALUE) s.observations[i]++;
+        }
+    }
+
+    /** Smoothed TDEE once MIN_OBSERVATIONS logs have been folded in, otherwise NaN. */
+    public double estimate(String userId) {
+        if (userId == null) return Double.NaN;
+        long key = key(userId);
+        Stripe s = stripe(key);
+        synchronized (s) {
+            int i = s.slot(key, false);
+            return i >= 0 && s.observations[i] >= MIN_OBSERVATIONS ? s.tdee[i] : Double.NaN;
+        }
+    }
+
+    /** Current state for one user, or null if nothing was recorded for them. */
+    public Estimate snapshot(String userId) {
+        long key = key(userId);
+        Stripe s = stripe(key);
+        synchronized (s) {
+            int i = s.slot(key, false);
+            if (i < 0) return null;
+            Estimate e = new Estimate();
+            e.userId = userId;
+            e.observations = s.observations[i];
+            e.tdee = s.observations[i] > 0 ? Math.round(s.tdee[i]) : 0;
+            e.trendWeightKg = Math.round(s.trend[i] * 10) / 10.0;
+            e.adaptive = s.observations[i] >= MIN_OBSERVATIONS;
+            return e;
+        }
+    }
+
+    public int size() {
+        int n = 0;
+        for (Stripe s : stripes) {
+            synchronized (s) {
+                n += s.size;
+            }
+        }
+        return n;
+    }
+
+    private Stripe stripe(long key) {
+        return stripes[(int) (key >>> 58) & (STRIPES - 1)];
+    }
+
+    // FNV-1a over the id's chars; 0 marks an empty slot so it is never a key
+    static long key(String userId) {
+        long h = 0xcbf29ce484222325L;
+        String id = userId == null ? "" : userId;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+
+    /** One open-addressing table; all access is under the stripe's monitor. */
+    private static final class Stripe {
+        static final int NEVER = Integer.MIN_VALUE;
+
+        long[] keys = new long[16];
+        float[] trend = new float[16];
+        float[] tdee = new float[16];
+        float[] target = new float[16];
+        int[] lastDay = filled(16);
+        short[] observations = new short[16];
+        int size;
+
+        int slot(long key, boolean create) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) return i;
+                if (keys[i] == 0) {
+                    if (!create) return -1;
+                    if (size + 1 > keys.length * 3 / 4) {
+                        grow();
+                        return slot(key, true);
+                    }
+                    keys[i] = key;
+                    size++;
+                    return i;
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            float[] oldTrend = trend, oldTdee = tdee, oldTarget = target;
+            int[] oldDay = lastDay;
+            short[] oldObs = observations;
+            int n = oldKeys.length * 2;
+            keys = new long[n];
+            trend = new float[n];
+            tdee = new float[n];
+            target = new float[n];
+            lastDay = filled(n);
+            observations = new short[n];
+            int mask = n - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] == 0) continue;
+                int i = mix(oldKeys[j]) & mask;
+                while (keys[i] != 0) i = (i + 1) & mask;
+                keys[i] = oldKeys[j];
+                trend[i] = oldTrend[j];
+                tdee[i] = oldTdee[j];
+                target[i] = oldTarget[j];
+                lastDay[i] = oldDay[j];
+                observations[i] = oldObs[j];
+            }
+        }
+
+        private static int[] filled(int n) {
+            int[] a = new int[n];
+            Arrays.fill(a, NEVER);
+            return a;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    public static class Estimate {
+        public String userId;
+        public int observations;
+        public long tdee;
+        public double trendWeightKg;
+        public boolean adaptive;
+    }
+}
@@ -0,0 +1,169 @@
+package com.project.planner.logic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Trace
+ * - Span tree for one request. The span current on a thread is a thread-local, so code inside a
+ *   stage opens child spans with {@code try (Span s = Trace.span("name")) {...}} and no parameters.
+ * - Outside a trace span() returns a shared no-op span: one thread-local read, nothing allocated.
+ * - Async stages continue the trace on other threads via {@link #traced(Span, String, Supplier)}.
+ * - Spans carry string tags (pool sizes, iteration counts, chosen meals) for exporters.
+ */
+public class Trace {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final Span NOOP = new Span(null, null, "noop");
+
+    public final long idHi;
+    public final long idLo;
+    /** Wall-clock start in epoch microseconds; span times are offsets from {@link #startNanos}. */
+    public final long startEpochMicros;
+    public final long startNanos;
+    private final List<Span> spans = new ArrayList<>();
+    private final Span root;
+    private volatile Object attachment;
+
+    public Trace(String name) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        this.idHi = rnd.nextLong();
+        this.idLo = rnd.nextLong();
+        this.startEpochMicros = System.currentTimeMillis() * 1000;
+        this.startNanos = System.nanoTime();
+        this.root = new Span(this, null, name);
+        spans.add(root);
+    }
+
+    public Span root() {
+        return root;
+    }
+
+    /** Spans opened so far, root first. */
+    public List<Span> spans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    public String traceId() {
+        return String.format("%016x%016x", idHi, idLo);
+    }
+
+    /** Per-trace state of an exporter (e.g. an event begun when the trace started). */
+    public Object attachment() {
+        return attachment;
+    }
+
+    public void attach(Object o) {
+        attachment = o;
+    }
+
+    /** Child of this thread's current span, current until closed; a no-op span outside a trace. */
+    public static Span span(String name) {
+        Span parent = CURRENT.get();
+        if (parent == null) return NOOP;
+        Span s = parent.trace.open(parent, name);
+        s.previous = parent;
+        CURRENT.set(s);
+        return s;
+    }
+
+    /** This thread's current span, or null outside a trace; hand it to work continued on other threads. */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /** Makes {@code span} current on this thread until the returned scope is closed. */
+    public static Scope activate(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> restore(previous);
+    }
+
+    /** {@code work} run under a child span of {@code parent} on whichever thread calls it; as is without a parent. */
+    public static <T> Supplier<T> traced(Span parent, String name, Supplier<T> work) {
+        if (parent == null || parent == NOOP) return work;
+        return () -> {
+            try (Scope scope = activate(parent); Span s = span(name)) {
+                return work.get();
+            }
+        };
+    }
+
+    private Span open(Span parent, String name) {
+        Span s = new Span(this, parent, name);
+        synchronized (spans) {
+            spans.add(s);
+        }
+        return s;
+    }
+
+    private static void restore(Span previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Span implements AutoCloseable {
+        public final Trace trace;
+        public final Span parent;
+        public final String name;
+        public final long id;
+        public final long startNanos;
+        private volatile long durationNanos = -1;
+        private Map<String, String> tags;
+        private Span previous; // current span on the opening thread before this one
+
+        private Span(Trace trace, Span parent, String name) {
+            this.trace = trace;
+            this.parent = parent;
+            this.name = name;
+            this.id = trace == null ? 0 : ThreadLocalRandom.current().nextLong();
+            this.startNanos = System.nanoTime();
+        }
+
+        public Span tag(String key, Object value) {
+            if (trace == null) return this;
+            synchronized (this) {
+                if (tags == null) tags = new LinkedHashMap<>();
+                tags.put(key, String.valueOf(value));
+            }
+            return this;
+        }
+
+        public synchronized Map<String, String> tags() {
+            return tags == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        }
+
+        public synchronized String tag(String key) {
+            return tags == null ? null : tags.get(key);
+        }
+
+        /** Nanoseconds from start to close, or -1 while open. */
+        public long durationNanos() {
+            return durationNanos;
+        }
+
+        public boolean isNoop() {
+            return trace == null;
+        }
+
+        /** Ends the span (first call only) and, if current on this thread, restores the span it replaced. */
+        @Override
+        public void close() {
+            if (trace == null) return;
+            if (durationNanos < 0) durationNanos = System.nanoTime() - startNanos;
+            if (CURRENT.get() == this) restore(previous);
+        }
+    }
+}
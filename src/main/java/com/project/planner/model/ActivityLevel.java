@@ -0,0 +1,13 @@
+package com.project.planner.model;
+
+/** Values of UserProfile.activityLevel; unset or unknown levels count as SEDENTARY. */
+public enum ActivityLevel {
+    SEDENTARY, LIGHT, MODERATE, ACTIVE, VERY_ACTIVE;
+
+    /** Case-insensitive match of a form/API value; null if unset or not one of the constants. */
+    public static ActivityLevel parse(String value) {
+        if (value == null) return null;
+        for (ActivityLevel v : values()) if (v.name().equalsIgnoreCase(value)) return v;
+        return null;
+    }
+}
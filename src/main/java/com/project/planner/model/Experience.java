@@ -0,0 +1,13 @@
+package com.project.planner.model;
+
+/** Values of UserProfile.experience; unset means BEGINNER. */
+public enum Experience {
+    BEGINNER, INTERMEDIATE, ADVANCED;
+
+    /** Case-insensitive match of a form/API value; null if unset or not one of the constants. */
+    public static Experience parse(String value) {
+        if (value == null) return null;
+        for (Experience v : values()) if (v.name().equalsIgnoreCase(value)) return v;
+        return null;
+    }
+}
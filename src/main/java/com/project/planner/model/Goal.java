@@ -0,0 +1,13 @@
+package com.project.planner.model;
+
+/** Values of UserProfile.goal; unset means LOSE_FAT. */
+public enum Goal {
+    LOSE_FAT, MAINTAIN, GAIN_MUSCLE;
+
+    /** Case-insensitive match of a form/API value; null if unset or not one of the constants. */
+    public static Goal parse(String value) {
+        if (value == null) return null;
+        for (Goal v : values()) if (v.name().equalsIgnoreCase(value)) return v;
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.planner.model;
+
+/** Values of UserProfile.sex; the engine treats anything but FEMALE as MALE. */
+public enum Sex {
+    MALE, FEMALE;
+
+    /** Case-insensitive match of a form/API value; null if unset or not one of the constants. */
+    public static Sex parse(String value) {
+        if (value == null) return null;
+        for (Sex v : values()) if (v.name().equalsIgnoreCase(value)) return v;
+        return null;
+    }
+}
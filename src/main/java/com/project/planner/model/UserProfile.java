@@ -5,6 +5,7 @@ import java.util.Set;
 
 public class UserProfile {
 
+    private String userId;
     private String name;
     private int age;
     private String sex;
@@ -14,6 +15,7 @@ public class UserProfile {
     private String experience;
     private String goal;
     private String region;
+    private String tenant; // catalog overlay, null for the shared catalog
 
     private DietPreference diet = new DietPreference();
     private Equipment equipment = new Equipment();
@@ -21,6 +23,9 @@ public class UserProfile {
 
     // Getters & Setters
 
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -56,4 +61,7 @@ public class UserProfile {
 
     public String getRegion() { return region; }
     public void setRegion(String region) { this.region = region; }
+
+    public String getTenant() { return tenant; }
+    public void setTenant(String tenant) { this.tenant = tenant; }
 }
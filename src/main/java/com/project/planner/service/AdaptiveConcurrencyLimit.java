@@ -0,0 +1,50 @@
+package com.project.planner.service;
+
+/**
+ * AIMD concurrency limit driven by observed latency.
+ * - Each completion under the latency target grows the limit by 1/limit (about +1 per window).
+ * - A completion over the target, or a failure, cuts it by {@code backoff}.
+ * Requests beyond the current limit are refused rather than queued.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max, long targetNanos, double backoff) {
+        this.limit = initial;
+        this.minLimit = min;
+        this.maxLimit = max;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        if (failed || latencyNanos > targetNanos) {
+            limit = Math.max(minLimit, limit * backoff);
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    /** Gives back a slot that was acquired but never used for work; no latency signal. */
+    public synchronized void cancel() {
+        inFlight--;
+    }
+
+    public synchronized int getLimit() { return (int) limit; }
+
+    public synchronized int getInFlight() { return inFlight; }
+}
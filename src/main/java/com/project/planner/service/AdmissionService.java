@@ -0,0 +1,164 @@
+package com.project.planner.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AdmissionService
+ * - Sits in front of PlannerService and decides whether a plan request may run at all.
+ * - Per-client token buckets charge each request its estimated cost (PlannerService.estimateCost).
+ * - A latency-driven AIMD limit caps concurrent plans globally.
+ * - Refused requests fail fast with OverloadedException instead of queueing.
+ * - Buckets are kept per client: its address, or the id a forwarding cluster peer passes on; above MAX_TRACKED_CLIENTS a background sweep drops the full ones
+ *   (a full bucket is the same as a new one), off the request path.
+ * - Plan requests may turn out to need no planning capacity (a plan-cache hit, or waiting on an
+ *   identical plan already running), which is only known inside the pipeline: admitRated charges the
+ *   bucket up front, and the pipeline calls Permit.limit() where it actually computes a plan.
+ */
+@Service
+public class AdmissionService {
+
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+    private static final long SWEEP_SECONDS = 10;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AdaptiveConcurrencyLimit limit;
+    private final double clientBurst;
+    private final double clientRate;
+    private ScheduledExecutorService sweeper;
+
+    public AdmissionService(@Value("${planner.admission.client-burst:30}") double clientBurst,
+                            @Value("${planner.admission.client-rate:10}") double clientRate,
+                            @Value("${planner.admission.latency-target-ms:800}") long latencyTargetMs) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.clientBurst = clientBurst;
+        this.clientRate = clientRate;
+        this.limit = new AdaptiveConcurrencyLimit(4 * cores, 1, 32 * cores,
+                TimeUnit.MILLISECONDS.toNanos(latencyTargetMs), 0.9);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "admission-sweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    /**
+     * @param cost estimated planning cost, in the units of PlannerService.estimateCost
+     * @throws OverloadedException if the client is over its rate or the instance is at its limit
+     */
+    public Permit admit(String clientId, double cost) {
+        if (!limit.tryAcquire()) {
+            throw new OverloadedException(OverloadedException.Reason.CONCURRENCY_LIMITED, 1,
+                    "Planner is at capacity (" + limit.getLimit() + " plans in progress), please retry shortly");
+        }
+        long now = System.nanoTime();
+        long waitNanos = bucket(clientId).tryTake(cost, now);
+        if (waitNanos > 0) {
+            limit.cancel();
+            long retry = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            throw new OverloadedException(OverloadedException.Reason.RATE_LIMITED, retry,
+                    "Too many plan requests, retry in " + retry + "s");
+        }
+        return new Permit(now, true);
+    }
+
+    /**
+     * Admission charged to the client's bucket only; the permit enters the concurrency limit when
+     * {@link Permit#limit()} is called, i.e. once the request is known to compute a plan. Requests that
+     * never do (cache hits, coalesced waiters) stay outside it, whose latency signal they would only skew.
+     * @throws OverloadedException if the client is over its rate
+     */
+    public Permit admitRated(String clientId, double cost) {
+        long now = System.nanoTime();
+        TokenBucket bucket = bucket(clientId);
+        long waitNanos = bucket.tryTake(cost, now);
+        if (waitNanos > 0) {
+            long retry = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            throw new OverloadedException(OverloadedException.Reason.RATE_LIMITED, retry,
+                    "Too many plan requests, retry in " + retry + "s");
+        }
+        Permit permit = new Permit(now, false);
+        permit.bucket = bucket;
+        permit.cost = cost;
+        return permit;
+    }
+
+    public int getConcurrencyLimit() { return limit.getLimit(); }
+
+    public int getInFlight() { return limit.getInFlight(); }
+
+    private TokenBucket bucket(String clientId) {
+        return buckets.computeIfAbsent(clientId == null ? "" : clientId, k -> new TokenBucket(clientBurst, clientRate));
+    }
+
+    private void sweep() {
+        if (buckets.size() <= MAX_TRACKED_CLIENTS) return;
+        long now = System.nanoTime();
+        // a full bucket carries no state worth keeping
+        buckets.values().removeIf(b -> b.isFull(now));
+    }
+
+    /** Held for the duration of one admitted request; feeds its latency back into the limit. */
+    public class Permit {
+        private long startNanos;
+        private boolean limited;
+        private boolean released;
+        // set for admitRated permits: refunded if the concurrency limit later refuses the request
+        private TokenBucket bucket;
+        private double cost;
+
+        private Permit(long startNanos, boolean limited) {
+            this.startNanos = startNanos;
+            this.limited = limited;
+        }
+
+        /**
+         * Takes a concurrency slot for the rest of this request; its latency is measured from here.
+         * No-op if the permit already holds one.
+         * @throws OverloadedException if the instance is at its limit (the client's tokens are refunded)
+         */
+        public synchronized void limit() {
+            if (limited || released) return;
+            if (!AdmissionService.this.limit.tryAcquire()) {
+                if (bucket != null) bucket.refund(cost);
+                throw new OverloadedException(OverloadedException.Reason.CONCURRENCY_LIMITED, 1,
+                        "Planner is at capacity (" + AdmissionService.this.limit.getLimit()
+                                + " plans in progress), please retry shortly");
+            }
+            limited = true;
+            startNanos = System.nanoTime();
+        }
+
+        public synchronized void release(boolean failed) {
+            release(failed, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Releases with {@code latencyNanos} as the limit's latency sample instead of the time held, for
+         * permits held across time the limit should not judge, e.g. a client reading a stream.
+         */
+        public synchronized void release(boolean failed, long latencyNanos) {
+            if (released) return;
+            released = true;
+            if (limited) limit.release(latencyNanos, failed);
+        }
+    }
+}
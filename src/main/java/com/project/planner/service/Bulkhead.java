@@ -0,0 +1,50 @@
+package com.project.planner.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead
+ * - Fixed-size pool with a bounded queue, one per pipeline stage family.
+ * - A slow stage (e.g. price lookup) can only exhaust its own threads, never the planner's.
+ * - When full, work is rejected immediately as a failed future instead of queueing without limit.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor pool;
+
+    public Bulkhead(String name, int threads, int queueSize) {
+        this.name = name;
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                r -> {
+                    Thread t = new Thread(r, "planner-" + name + "-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("bulkhead '" + name + "' is full", e));
+        }
+    }
+
+    public String getName() { return name; }
+
+    public int getActiveCount() { return pool.getActiveCount(); }
+
+    public int getQueued() { return pool.getQueue().size(); }
+
+    public void shutdown() { pool.shutdown(); }
+}
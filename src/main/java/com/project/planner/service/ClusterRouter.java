@@ -0,0 +1,173 @@
+package com.project.planner.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster mode: profile-affinity routing across planner instances listed in static config.
+ * - planner.cluster.nodes: base URLs of all instances (e.g. http://localhost:8081,http://localhost:8082);
+ *   planner.cluster.self: this instance's URL as it appears in that list. Empty nodes = single instance.
+ * - A plan request belongs to the node owning its canonical profile fingerprint on a consistent-hash
+ *   ring, so repeated profiles hit that node's PlanCache whichever node the load balancer picked.
+ * - Requests are forwarded once (FORWARDED_HEADER marks them; the owner never forwards again).
+ * - A forwarded request carries the original client's id for rate limiting; it is honoured only when
+ *   FORWARDED_HEADER names another configured node and the connection comes from that node's address.
+ * - If the owner can't be reached, times out or answers 5xx, the request is planned locally and the
+ *   owner is skipped for planner.cluster.down-ms, so an outage costs one timeout, not one per request.
+ */
+@Service
+public class ClusterRouter {
+
+    public static final String FORWARDED_HEADER = "X-Planner-Forwarded";
+
+    @Value("${planner.cluster.nodes:}")
+    private String nodeList = "";
+
+    @Value("${planner.cluster.self:}")
+    private String self = "";
+
+    @Value("${planner.cluster.virtual-nodes:160}")
+    private int virtualNodes = 160;
+
+    @Value("${planner.cluster.forward-timeout-ms:2000}")
+    private long forwardTimeoutMs = 2000;
+
+    @Value("${planner.cluster.down-ms:5000}")
+    private long downMs = 5000;
+
+    private HashRing ring;
+    private HttpClient http;
+    // other nodes -> their resolved addresses, fixed at init
+    private final Map<String, Set<String>> peerAddresses = new HashMap<>();
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final AtomicLong owned = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        List<String> nodes = new ArrayList<>();
+        for (String s : nodeList.split(",")) if (!s.isBlank()) nodes.add(normalize(s));
+        if (nodes.isEmpty()) return;
+        self = normalize(self);
+        if (!nodes.contains(self)) {
+            throw new IllegalStateException("planner.cluster.self (" + self + ") is not in planner.cluster.nodes " + nodes);
+        }
+        ring = new HashRing(nodes, virtualNodes);
+        for (String node : nodes) {
+            if (!node.equals(self)) peerAddresses.put(node, addresses(node));
+        }
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(forwardTimeoutMs)).build();
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    /**
+     * Whether the request was forwarded by another node of this cluster, so the client id it carries
+     * can be trusted: {@code forwardedBy} (FORWARDED_HEADER) is a configured peer and the request
+     * comes from one of that peer's addresses.
+     */
+    public boolean forwardedByPeer(String forwardedBy, String remoteAddr) {
+        if (ring == null || forwardedBy == null || remoteAddr == null) return false;
+        Set<String> addresses = peerAddresses.get(normalize(forwardedBy));
+        return addresses != null && addresses.contains(remoteAddr);
+    }
+
+    /**
+     * Node to forward to, or null to plan here: cluster mode off, this node owns the profile, the
+     * request was already forwarded, or the owner is marked down.
+     */
+    public String route(ProfileFingerprint fingerprint, boolean alreadyForwarded) {
+        if (ring == null || alreadyForwarded) return null;
+        String owner = ring.owner(fingerprint);
+        if (owner.equals(self)) {
+            owned.incrementAndGet();
+            return null;
+        }
+        Long until = downUntil.get(owner);
+        if (until != null && System.currentTimeMillis() < until) {
+            fallbacks.incrementAndGet();
+            return null;
+        }
+        return owner;
+    }
+
+    /**
+     * Sends the request to {@code owner}. Completes with null (plan locally) instead of failing when
+     * the owner is unavailable; 4xx answers, including the owner's 429 rate limiting, pass through.
+     */
+    public CompletableFuture<HttpResponse<byte[]>> forward(String owner, String path, String contentType,
+                                                           byte[] body, String clientId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(owner + path))
+                .timeout(Duration.ofMillis(forwardTimeoutMs))
+                .header("Content-Type", contentType)
+                .header(FORWARDED_HEADER, self)
+                .header("X-Client-Id", clientId)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .orTimeout(forwardTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((response, e) -> {
+                    if (e == null && response.statusCode() < 500) {
+                        forwarded.incrementAndGet();
+                        return response;
+                    }
+                    downUntil.put(owner, System.currentTimeMillis() + downMs);
+                    fallbacks.incrementAndGet();
+                    return null;
+                });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", isEnabled());
+        out.put("self", self);
+        out.put("nodes", ring != null ? ring.nodes() : List.of());
+        long now = System.currentTimeMillis();
+        List<String> down = new ArrayList<>();
+        downUntil.forEach((node, until) -> { if (until > now) down.add(node); });
+        out.put("down", down);
+        out.put("owned", owned.get());
+        out.put("forwarded", forwarded.get());
+        out.put("fallbacks", fallbacks.get());
+        return out;
+    }
+
+    /** Addresses {@code node}'s host resolves to; none (never trusted) if it doesn't resolve. */
+    private static Set<String> addresses(String node) {
+        Set<String> out = new HashSet<>();
+        try {
+            for (InetAddress a : InetAddress.getAllByName(URI.create(node).getHost())) out.add(a.getHostAddress());
+        } catch (UnknownHostException | IllegalArgumentException e) {
+            // left empty: its forwarded requests are limited by address like any other client
+        }
+        return out;
+    }
+
+    private static String normalize(String url) {
+        String u = url.trim();
+        return u.endsWith("/") ? u.substring(0, u.length() - 1) : u;
+    }
+}
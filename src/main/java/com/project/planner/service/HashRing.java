@@ -0,0 +1,67 @@
+package com.project.planner.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent-hash ring over planner nodes.
+ * - Each node is placed at {@code virtualNodes} points; a key belongs to the first point at or after it.
+ * - Adding or removing one of N nodes moves only ~1/N of the keys; with ~160 points per node the
+ *   share of keys per node stays within a few percent of even.
+ * - Keys are ProfileFingerprints, which are already uniform hashes, so their high word is the ring key.
+ * Immutable and Spring-free.
+ */
+public class HashRing {
+
+    private final long[] points;   // sorted
+    private final int[] owners;    // node index per point
+    private final List<String> nodes;
+
+    public HashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) throw new IllegalArgumentException("ring needs at least one node");
+        this.nodes = List.copyOf(nodes);
+        int n = nodes.size() * virtualNodes;
+        long[][] placed = new long[n][];
+        for (int node = 0, k = 0; node < nodes.size(); node++) {
+            for (int v = 0; v < virtualNodes; v++) placed[k++] = new long[]{hash(nodes.get(node) + "#" + v), node};
+        }
+        Arrays.sort(placed, (a, b) -> Long.compare(a[0], b[0]));
+        points = new long[n];
+        owners = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = placed[i][0];
+            owners[i] = (int) placed[i][1];
+        }
+    }
+
+    public String owner(ProfileFingerprint fingerprint) {
+        return owner(fingerprint.hi());
+    }
+
+    public String owner(long key) {
+        int i = Arrays.binarySearch(points, key);
+        if (i < 0) i = -i - 1;
+        if (i == points.length) i = 0; // wrap around
+        return nodes.get(owners[i]);
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    // FNV-1a over UTF-8, then the murmur3 finalizer to spread nearby node names across the ring
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : s.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.FeasibilityCheck;
+
+/**
+ * Thrown when a profile fails the pre-planning feasibility check; carries the reasons and relaxations.
+ */
+public class InfeasibleProfileException extends RuntimeException {
+
+    private final FeasibilityCheck.Result result;
+
+    public InfeasibleProfileException(FeasibilityCheck.Result result) {
+        super(result.reasons.isEmpty() ? "infeasible profile" : result.reasons.get(0).message);
+        this.result = result;
+    }
+
+    public FeasibilityCheck.Result getResult() { return result; }
+}
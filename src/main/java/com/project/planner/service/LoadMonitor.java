@@ -0,0 +1,51 @@
+package com.project.planner.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when PlannerService should switch to the fast template planner.
+ * - Tracks an EWMA of full-engine planning latency and looks at the planning bulkhead queue.
+ * - Enters fast mode above the enter thresholds and leaves it only below the (lower) exit ones.
+ * - While in fast mode every {@code PROBE_EVERY}-th request still takes the full path, so the
+ *   latency estimate keeps moving and fast mode can end.
+ */
+public class LoadMonitor {
+
+    private static final double ALPHA = 0.2;
+    private static final int PROBE_EVERY = 8;
+
+    private final long enterLatencyNanos;
+    private final long exitLatencyNanos;
+    private final int enterQueue;
+
+    private final AtomicLong requests = new AtomicLong();
+    private double ewmaNanos;
+    private boolean fast;
+
+    public LoadMonitor(long enterLatencyNanos, long exitLatencyNanos, int enterQueue) {
+        this.enterLatencyNanos = enterLatencyNanos;
+        this.exitLatencyNanos = exitLatencyNanos;
+        this.enterQueue = enterQueue;
+    }
+
+    public synchronized void recordFullPlan(long latencyNanos) {
+        ewmaNanos = ewmaNanos == 0 ? latencyNanos : ALPHA * latencyNanos + (1 - ALPHA) * ewmaNanos;
+    }
+
+    public boolean serveFast(int queued) {
+        boolean mode;
+        synchronized (this) {
+            if (fast) {
+                fast = ewmaNanos > exitLatencyNanos || queued > enterQueue / 2;
+            } else {
+                fast = ewmaNanos > enterLatencyNanos || queued > enterQueue;
+            }
+            mode = fast;
+        }
+        return mode && requests.incrementAndGet() % PROBE_EVERY != 0;
+    }
+
+    public synchronized boolean isFastMode() { return fast; }
+
+    public synchronized long getEwmaLatencyNanos() { return (long) ewmaNanos; }
+}
@@ -0,0 +1,22 @@
+package com.project.planner.service;
+
+/**
+ * Thrown when a plan request is refused by admission control.
+ */
+public class OverloadedException extends RuntimeException {
+
+    public enum Reason { RATE_LIMITED, CONCURRENCY_LIMITED }
+
+    private final Reason reason;
+    private final long retryAfterSeconds;
+
+    public OverloadedException(Reason reason, long retryAfterSeconds, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() { return reason; }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
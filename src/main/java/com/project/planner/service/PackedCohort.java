@@ -0,0 +1,87 @@
+package com.project.planner.service;
+
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.model.UserProfile;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Append-only arena of ProfileCodec-encoded profiles for cohort and batch runs: one byte[] for all
+ * profiles plus an int offset each, so a million resident profiles are two arrays (~50 MB) rather than
+ * tens of millions of small objects for the GC to trace. Profiles are decoded on access.
+ * Not thread-safe for appends; read concurrently once filled.
+ */
+public class PackedCohort implements Iterable<UserProfile> {
+
+    private final ProfileCodec codec;
+    private byte[] data = new byte[1 << 12];
+    private int[] offsets = new int[1 << 7];
+    private int size;
+    private int end;
+
+    public PackedCohort() {
+        this(new ProfileCodec());
+    }
+
+    public PackedCohort(ProfileCodec codec) {
+        this.codec = codec;
+    }
+
+    public int add(UserInputDTO dto) {
+        byte[] packed = codec.encode(dto);
+        if (end + packed.length > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, end + packed.length));
+        if (size + 1 >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        System.arraycopy(packed, 0, data, end, packed.length);
+        end += packed.length;
+        offsets[++size] = end; // profile i spans offsets[i]..offsets[i + 1]
+        return size - 1;
+    }
+
+    public UserProfile profile(int i) {
+        return codec.decodeProfile(bytes(i));
+    }
+
+    public UserInputDTO dto(int i) {
+        return codec.decode(bytes(i));
+    }
+
+    public byte[] bytes(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+        return Arrays.copyOfRange(data, offsets[i], offsets[i + 1]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Bytes of encoded profile data (excluding spare capacity and offsets). */
+    public long dataBytes() {
+        return end;
+    }
+
+    /** Releases spare capacity once the cohort is complete. */
+    public void trim() {
+        data = Arrays.copyOf(data, end);
+        offsets = Arrays.copyOf(offsets, size + 1);
+    }
+
+    @Override
+    public Iterator<UserProfile> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public UserProfile next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return profile(next++);
+            }
+        };
+    }
+}
@@ -0,0 +1,205 @@
+package com.project.planner.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded responses for finished plans, so serving one again is a buffer copy instead of a walk of the
+ * plan's object graph through Jackson or Thymeleaf (and Tomcat's gzip).
+ * - A Payload holds the body as a heap byte[]. Its gzip encoding is made on the first re-serve to a
+ *   client that accepts it (the first response goes out as-is and Tomcat compresses it as usual), once,
+ *   so at the best level; serve accounts those bytes to the entry.
+ * - Heap, not direct buffers: Tomcat's OutputBuffer copies a written ByteBuffer into its own heap
+ *   buffer, so an off-heap body saves no copy on the way to the socket. A hit allocates only the
+ *   read-only view; bodies are allocated once per entry, not per response. Direct memory would be a
+ *   second budget outside -Xmx, freed only when GC runs the evicted buffer's cleaner, or need an
+ *   allocator of its own over a shared arena.
+ * - Bounded by the bytes held, least recently used evicted first. A body larger than the whole budget
+ *   is still returned by put, just not kept.
+ * - An entry may name the object it was encoded from (held weakly); a lookup with another source is a
+ *   miss, so a key never serves a page rendered from a plan that has since been re-planned.
+ * - Callers store only what can be asked for again (saved plans by id, pages of shared plans).
+ * Spring-free.
+ */
+public class PayloadCache {
+
+    private final long maxBytes;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PayloadCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * @param source the object the payload must have been encoded from, or null to accept any
+     * @return the stored payload, or null (counted as a miss)
+     */
+    public Payload get(String key, Object source) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(key);
+        }
+        if (e != null && (source == null || e.source.get() == source)) {
+            hits.incrementAndGet();
+            return e.payload;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /** Stores {@code payload} under {@code key}, replacing any entry, and evicts down to the budget; returns payload. */
+    public Payload put(String key, Object source, Payload payload) {
+        int size = payload.bytes();
+        if (size > maxBytes) return payload;
+        synchronized (entries) {
+            Entry old = entries.put(key, new Entry(payload, source, size));
+            if (old != null) bytes -= old.bytes;
+            bytes += size;
+            evict();
+        }
+        return payload;
+    }
+
+    /**
+     * The body of a payload got from this cache, gzip-encoded if asked. Compressing happens outside the
+     * lock; the encoding's bytes are charged to the entry if it is still stored under {@code key}.
+     */
+    public ByteBuffer serve(String key, Payload payload, boolean gzipped) {
+        if (!gzipped || payload.hasGzip()) return payload.body(gzipped);
+        ByteBuffer body = payload.body(true);
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e != null && e.payload == payload && e.bytes < payload.bytes()) {
+                bytes += payload.bytes() - e.bytes;
+                e.bytes = payload.bytes();
+                evict();
+            }
+        }
+        return body;
+    }
+
+    private void evict() {
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= it.next().bytes;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("hits", hits.get());
+        out.put("misses", misses.get());
+        out.put("evictions", evictions.get());
+        synchronized (entries) {
+            out.put("entries", entries.size());
+            out.put("bytes", bytes);
+        }
+        out.put("maxBytes", maxBytes);
+        return out;
+    }
+
+    /** Whether an Accept-Encoding header value admits gzip (a "gzip;q=0" or "*;q=0" entry refuses it). */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        boolean any = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] p = part.trim().split(";");
+            String coding = p[0].trim();
+            boolean refused = p.length > 1 && p[1].replace(" ", "").matches("q=0(\\.0*)?");
+            if (coding.equals("gzip") || coding.equals("x-gzip")) return !refused;
+            if (coding.equals("*")) any = !refused;
+        }
+        return any;
+    }
+
+    /** One response body, and its gzip encoding once asked for. */
+    public static final class Payload {
+        public final String contentType;
+        private final byte[] identity;
+        private volatile byte[] gzip;
+
+        private Payload(String contentType, byte[] identity) {
+            this.contentType = contentType;
+            this.identity = identity;
+        }
+
+        /** Keeps {@code body} (not copied; callers hand over a fresh array). */
+        public static Payload encode(String contentType, byte[] body) {
+            return new Payload(contentType, body);
+        }
+
+        /** A fresh read-only view of the body, positioned at its start; callers may consume it. */
+        public ByteBuffer body(boolean gzipped) {
+            return ByteBuffer.wrap(gzipped ? gzip() : identity).asReadOnlyBuffer();
+        }
+
+        public int size(boolean gzipped) {
+            return (gzipped ? gzip() : identity).length;
+        }
+
+        boolean hasGzip() {
+            return gzip != null;
+        }
+
+        int bytes() {
+            byte[] g = gzip;
+            return identity.length + (g != null ? g.length : 0);
+        }
+
+        private byte[] gzip() {
+            byte[] g = gzip;
+            if (g == null) {
+                synchronized (this) {
+                    g = gzip;
+                    if (g == null) gzip = g = compress(identity);
+                }
+            }
+            return g;
+        }
+
+        private static byte[] compress(byte[] body) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            }) {
+                out.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return compressed.toByteArray();
+        }
+    }
+
+    private static final class Entry {
+        final Payload payload;
+        final WeakReference<Object> source;
+        int bytes; // accounted; grows when the gzip encoding is made
+
+        Entry(Payload payload, Object source, int bytes) {
+            this.payload = payload;
+            this.source = new WeakReference<>(source);
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of full (non-template) plans by canonical profile fingerprint.
+ * - An entry is only reused for the same calorie target (adaptive TDEE moves it per user) and the
+ *   same engine catalog version (a price update invalidates every entry lazily).
+ * - Local to one instance; in cluster mode ClusterRouter sends a profile to the node owning its
+ *   fingerprint, so each profile is cached on one node instead of on whichever node it hit.
+ */
+public class PlanCache {
+
+    private final int capacity;
+    private final Map<ProfileFingerprint, Entry> plans;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PlanCache(int capacity) {
+        this.capacity = capacity;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ProfileFingerprint, Entry> eldest) {
+                return size() > PlanCache.this.capacity;
+            }
+        };
+    }
+
+    /** @return the cached plan, or null (counted as a miss) */
+    public WeeklyPlan get(ProfileFingerprint fingerprint, int targetKcal, long catalogVersion) {
+        Entry e;
+        synchronized (plans) {
+            e = plans.get(fingerprint);
+        }
+        if (e != null && e.targetKcal == targetKcal && e.catalogVersion == catalogVersion) {
+            hits.incrementAndGet();
+            return e.plan;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(ProfileFingerprint fingerprint, int targetKcal, long catalogVersion, WeeklyPlan plan) {
+        if (capacity <= 0) return;
+        synchronized (plans) {
+            plans.put(fingerprint, new Entry(plan, targetKcal, catalogVersion));
+        }
+    }
+
+    public boolean isEnabled() { return capacity > 0; }
+
+    public long getHits() { return hits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    public int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    private static final class Entry {
+        final WeeklyPlan plan;
+        final int targetKcal;
+        final long catalogVersion;
+
+        Entry(WeeklyPlan plan, int targetKcal, long catalogVersion) {
+            this.plan = plan;
+            this.targetKcal = targetKcal;
+            this.catalogVersion = catalogVersion;
+        }
+    }
+}
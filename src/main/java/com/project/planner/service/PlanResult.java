@@ -0,0 +1,75 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.model.UserProfile;
+
+import java.util.Map;
+
+/**
+ * Output of the asynchronous planning pipeline: the plan plus everything derived from it.
+ */
+public class PlanResult {
+    private final UserProfile profile;
+    private final WeeklyPlan plan;
+    private final Map<String, Integer> shoppingList;
+    private final Map<String, Double> ingredientPrices;
+    private final double shoppingListCost;
+    private final String planId;
+    private final ProfileFingerprint fingerprint;
+    private final long catalogVersion;
+    private final boolean sharedPlan;
+
+    public PlanResult(UserProfile profile, WeeklyPlan plan, Map<String, Integer> shoppingList,
+                      Map<String, Double> ingredientPrices, double shoppingListCost, String planId,
+                      ProfileFingerprint fingerprint, long catalogVersion) {
+        this(profile, plan, shoppingList, ingredientPrices, shoppingListCost, planId, fingerprint, catalogVersion, false);
+    }
+
+    public PlanResult(UserProfile profile, WeeklyPlan plan, Map<String, Integer> shoppingList,
+                      Map<String, Double> ingredientPrices, double shoppingListCost, String planId,
+                      ProfileFingerprint fingerprint, long catalogVersion, boolean sharedPlan) {
+        this.profile = profile;
+        this.plan = plan;
+        this.shoppingList = shoppingList;
+        this.ingredientPrices = ingredientPrices;
+        this.shoppingListCost = shoppingListCost;
+        this.planId = planId;
+        this.fingerprint = fingerprint;
+        this.catalogVersion = catalogVersion;
+        this.sharedPlan = sharedPlan;
+    }
+
+    public PlanResult withPlanId(String id) {
+        return new PlanResult(profile, plan, shoppingList, ingredientPrices, shoppingListCost, id, fingerprint, catalogVersion,
+                sharedPlan);
+    }
+
+    public UserProfile getProfile() { return profile; }
+    public WeeklyPlan getPlan() { return plan; }
+    public Map<String, Integer> getShoppingList() { return shoppingList; }
+    public Map<String, Double> getIngredientPrices() { return ingredientPrices; }
+    public double getShoppingListCost() { return shoppingListCost; }
+    public String getPlanId() { return planId; }
+
+    /** Fingerprint of the canonical profile the plan was generated for (ProfileNormalizer.fingerprint). */
+    public String getProfileFingerprint() { return fingerprint != null ? fingerprint.toString() : null; }
+
+    public ProfileFingerprint fingerprint() { return fingerprint; }
+
+    /** Engine catalog/price version the plan was costed with (PlannerEngine.catalogVersion). */
+    public long catalogVersion() { return catalogVersion; }
+
+    /**
+     * Whether the plan object may be served again: it came from the plan cache or a coalesced flight, or
+     * was put in the plan cache. Other plans are used for this one response only.
+     */
+    public boolean sharedPlan() { return sharedPlan; }
+
+    /**
+     * HTTP entity tag: the same profile planned from the same catalog gets the same tag. Weak, since a
+     * gzip-encoded body is not byte-identical (and Tomcat does not compress responses with strong tags).
+     */
+    public String etag() {
+        return "W/\"" + fingerprint + "-" + Long.toHexString(catalogVersion) + "\"";
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory stand-in for plan persistence.
+ * Keeps the most recent plan results (bounded, oldest evicted first) keyed by a generated id.
+ */
+@Service
+public class PlanStore {
+
+    private static final int MAX_PLANS = 10_000;
+
+    private final Map<String, PlanResult> plans = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlanResult> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    /** @return the stored result, carrying its new plan id */
+    public synchronized PlanResult save(PlanResult result) {
+        PlanResult saved = result.withPlanId(UUID.randomUUID().toString());
+        plans.put(saved.getPlanId(), saved);
+        return saved;
+    }
+
+    public synchronized Optional<PlanResult> find(String id) {
+        return Optional.ofNullable(plans.get(id));
+    }
+
+    public synchronized int size() {
+        return plans.size();
+    }
+
+    /** Snapshot cursor over stored plans, e.g. for PlannerService.aggregateCohort. */
+    public synchronized Iterator<WeeklyPlan> iterator() {
+        List<WeeklyPlan> snapshot = new ArrayList<>(plans.size());
+        for (PlanResult r : plans.values()) snapshot.add(r.getPlan());
+        return snapshot.iterator();
+    }
+}
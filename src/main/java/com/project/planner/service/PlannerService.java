@@ -1,65 +1,443 @@
 package com.project.planner.service;
 
 import com.project.planner.dto.UserInputDTO;
+import com.project.planner.logic.CatalogOverlay;
+import com.project.planner.logic.CatalogVocabulary;
+import com.project.planner.logic.CohortReport;
+import com.project.planner.logic.FastPlannerEngine;
+import com.project.planner.logic.FeasibilityCheck;
+import com.project.planner.logic.HouseholdPlanner;
+import com.project.planner.logic.PeriodizationPlanner;
+import com.project.planner.logic.PeriodizationPlanner.TrainingWeek;
 import com.project.planner.logic.PlannerEngine;
 import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.logic.PlanningEngine;
+import com.project.planner.logic.TdeeStore;
+import com.project.planner.logic.Trace;
+import com.project.planner.logic.PriceTable;
 import com.project.planner.model.UserProfile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 public class PlannerService {
 
+    private static final Logger log = LoggerFactory.getLogger(PlannerService.class);
+
     private final PlannerEngine engine = new PlannerEngine();
+    private final FastPlannerEngine fastEngine = new FastPlannerEngine(engine);
+    private final PeriodizationPlanner periodization = new PeriodizationPlanner(engine);
+    private final HouseholdPlanner household = new HouseholdPlanner(engine);
+    private final FeasibilityCheck feasibility = new FeasibilityCheck(engine);
+    private final TdeeStore tdeeStore = new TdeeStore();
+    // ingredient/cuisine autocomplete and synonym resolution; prices don't change the vocabulary
+    private final CatalogVocabulary vocabulary = CatalogVocabulary.bundled(engine.catalog());
 
-    public UserProfile mapToUserProfile(UserInputDTO dto) {
-        UserProfile user = new UserProfile();
-
-        user.setName(dto.getName());
-        user.setAge(dto.getAge());
-        user.setSex(dto.getSex());
-        user.setHeightCm(dto.getHeightCm());
-        user.setWeightKg(dto.getWeightKg());
-        user.setActivityLevel(dto.getActivityLevel());
-        user.setExperience(dto.getExperience());
-        user.setGoal(dto.getGoal());
-        user.setRegion(dto.getRegion());
-
-        user.getDiet().setVegetarian(dto.isVegetarian());
-        user.getDiet().setVegan(dto.isVegan());
-        user.getDiet().setLactoseFree(dto.isLactoseFree());
-        user.getDiet().setGlutenFree(dto.isGlutenFree());
-        user.getDiet().setHalal(dto.isHalal());
-
-        if (dto.getAllergies() != null && !dto.getAllergies().isBlank()) {
-            for (String a : dto.getAllergies().split(",")) user.getDiet().getAllergies().add(a.trim().toLowerCase());
+    // CPU-bound planning and I/O-style stages (pricing, persistence) get separate bulkheads
+    private final Bulkhead planning = new Bulkhead("plan", Runtime.getRuntime().availableProcessors(), 256);
+    private final Bulkhead io = new Bulkhead("io", 16, 512);
+
+    // planning work of a bodyweight beginner with no preferences (25 meals, 10 exercises, 3 days)
+    private static final double BASELINE_WORK = 25 * 7 + 10 * 3;
+
+    @Autowired
+    private PriceService priceService;
+
+    @Autowired
+    private PlanStore planStore;
+
+    @Value("${planner.pipeline.plan-timeout-ms:2000}")
+    private long planTimeoutMs = 2000;
+
+    @Value("${planner.pipeline.price-timeout-ms:300}")
+    private long priceTimeoutMs = 300;
+
+    @Value("${planner.pipeline.persist-timeout-ms:500}")
+    private long persistTimeoutMs = 500;
+
+    @Value("${planner.fast.enabled:true}")
+    private boolean fastEnabled = true;
+
+    // reject profiles no plan can satisfy before they are admitted or planned
+    @Value("${planner.feasibility.enabled:true}")
+    private boolean feasibilityEnabled = true;
+
+    @Value("${planner.warmup.budget-ms:3000}")
+    private long warmupBudgetMs = 3000;
+
+    // shadow mode: name of a PlanningEngine candidate (greedy, template); empty = off
+    @Value("${planner.shadow.candidate:}")
+    private String shadowCandidate = "";
+
+    @Value("${planner.shadow.sample-rate:0.01}")
+    private double shadowSampleRate = 0.01;
+
+    @Value("${planner.shadow.report-file:}")
+    private String shadowReportFile = "";
+
+    // tenant catalog overlays, one CSV per tenant named <tenant>.csv; empty = shared catalog only
+    @Value("${planner.tenants.location:classpath*:tenants/*.csv}")
+    private String tenantsLocation = "classpath*:tenants/*.csv";
+
+    private volatile ShadowRunner shadow;
+
+    private final LoadMonitor loadMonitor;
+    // repeated profiles reuse their full plan; off unless planner.plan-cache.size > 0
+    private final PlanCache planCache;
+    // in-flight full plans by (fingerprint, target, catalog version); entries live only while planning
+    private final SingleFlight<List<Object>, WeeklyPlan> flights = new SingleFlight<>();
+
+    public PlannerService(@Value("${planner.fast.enter-latency-ms:1500}") long fastEnterLatencyMs,
+                          @Value("${planner.fast.exit-latency-ms:600}") long fastExitLatencyMs,
+                          @Value("${planner.fast.enter-queue:64}") int fastEnterQueue,
+                          @Value("${planner.plan-cache.size:0}") int planCacheSize) {
+        this.loadMonitor = new LoadMonitor(TimeUnit.MILLISECONDS.toNanos(fastEnterLatencyMs),
+                TimeUnit.MILLISECONDS.toNanos(fastExitLatencyMs), fastEnterQueue);
+        engine.setTdeeStore(tdeeStore);
+        this.planCache = new PlanCache(planCacheSize);
+    }
+
+    /**
+     * Meal costs follow the price tables; later price updates re-cost the engine's cache incrementally.
+     * Tenant overlays are loaded once here. Then starts shadow mode if configured, its engines forked
+     * from the priced engine.
+     */
+    @PostConstruct
+    public void start() {
+        engine.setPrices(priceService.table());
+        priceService.onUpdate(engine::setPrices);
+        engine.setTenants(loadTenants());
+        if (shadowCandidate != null && !shadowCandidate.isBlank()) {
+            shadow = new ShadowRunner(engine.fork(), PlanningEngine.candidate(shadowCandidate.trim(), engine),
+                    shadowSampleRate, shadowReportFile.isBlank() ? null : Path.of(shadowReportFile));
         }
-        if (dto.getDislikedIngredients() != null && !dto.getDislikedIngredients().isBlank()) {
-            for (String d : dto.getDislikedIngredients().split(",")) user.getDiet().getDislikedIngredients().add(d.trim().toLowerCase());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (shadow != null) shadow.shutdown();
+    }
+
+    /** Shadow comparison totals, or null when shadow mode is off. */
+    public Map<String, Object> shadowStats() {
+        ShadowRunner s = shadow;
+        return s != null ? s.stats() : null;
+    }
+
+    /**
+     * Startup stage: precompute the engine's diet/equipment pools and the fast-path templates for all
+     * common profile buckets, in parallel across cores and within planner.warmup.budget-ms.
+     * Runs in the background once the app is ready, so it never delays the first request; until it
+     * finishes the engine derives pools per request and fast-path templates are built on demand.
+     * The shadow engines are warmed the same way afterwards; shadow mode samples nothing until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpInBackground() {
+        Thread t = new Thread(this::warmUp, "planner-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void warmUp() {
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            fastEngine.warmUp(pool, warmupBudgetMs); // and the engine under it
+            ShadowRunner s = shadow;
+            if (s != null) s.warmUp(pool, warmupBudgetMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
         }
-        if (dto.getPreferredCuisines() != null && !dto.getPreferredCuisines().isBlank()) {
-            for (String c : dto.getPreferredCuisines().split(",")) user.getDiet().getPreferredCuisines().add(c.trim());
+    }
+
+    /**
+     * Canonical profile, with typed ingredient and cuisine synonyms replaced by catalog terms.
+     * @throws UnknownTenantException if the profile names a tenant without a loaded overlay
+     */
+    public UserProfile mapToUserProfile(UserInputDTO dto) {
+        UserProfile profile = vocabulary.resolve(ProfileMapper.toUserProfile(dto));
+        if (profile.getTenant() != null && engine.overlay(profile) == null) {
+            throw new UnknownTenantException(profile.getTenant());
         }
+        return profile;
+    }
 
-        user.getEquipment().setHasGym(dto.isHasGym());
-        user.getEquipment().setHasDumbbells(dto.isHasDumbbells());
-        user.getEquipment().setHasResistanceBands(dto.isHasResistanceBands());
-        user.getEquipment().setHasYogaMat(dto.isHasYogaMat());
-        user.getEquipment().setCanRunOutside(dto.isCanRunOutside());
+    /** Pre-planning check of the profile at its calorie target; microseconds, nothing is planned. */
+    public FeasibilityCheck.Result checkFeasibility(UserProfile profile) {
+        return feasibility.check(profile, engine.targetCalories(profile));
+    }
 
-        user.getSchedule().setWorkoutDaysPerWeek(dto.getWorkoutDaysPerWeek());
-        user.getSchedule().setMinutesPerWorkout(dto.getMinutesPerWorkout());
-        user.getSchedule().setDailyFoodBudget(dto.getDailyFoodBudget());
+    /** @throws InfeasibleProfileException if the check is on and fails for this profile */
+    public void requireFeasible(UserProfile profile) {
+        if (!feasibilityEnabled) return;
+        FeasibilityCheck.Result result = checkFeasibility(profile);
+        if (!result.feasible) throw new InfeasibleProfileException(result);
+    }
+
+    /** Size of each loaded tenant overlay, by tenant id. */
+    public Map<String, Object> tenantStats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        engine.tenants().values().stream().sorted((a, b) -> a.tenant.compareTo(b.tenant))
+                .forEach(o -> out.put(o.tenant, o.stats()));
+        return out;
+    }
+
+    /** Overlays matching planner.tenants.location; a file that does not parse is skipped with a warning. */
+    private Map<String, CatalogOverlay> loadTenants() {
+        Map<String, CatalogOverlay> overlays = new HashMap<>();
+        if (tenantsLocation == null || tenantsLocation.isBlank()) return overlays;
+        try {
+            for (Resource r : new PathMatchingResourcePatternResolver().getResources(tenantsLocation.trim())) {
+                String file = r.getFilename();
+                String tenant = ProfileNormalizer.token(file == null ? null : file.replaceFirst("\\.csv$", ""));
+                if (tenant == null) continue;
+                try (Reader in = new InputStreamReader(r.getInputStream(), StandardCharsets.UTF_8)) {
+                    if (overlays.putIfAbsent(tenant, CatalogOverlay.parse(tenant, in, engine.catalog())) != null) {
+                        log.warn("tenant overlay {} ignored: tenant {} already loaded", r, tenant);
+                    }
+                } catch (IOException e) {
+                    log.warn("tenant overlay {} not loaded: {}", r, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("tenant overlays at {} not loaded: {}", tenantsLocation, e.getMessage());
+        }
+        return overlays;
+    }
 
-        return user;
+    public List<CatalogVocabulary.Suggestion> suggest(CatalogVocabulary.Kind kind, String typed, int limit) {
+        return vocabulary.suggest(kind, typed, limit);
     }
 
     public WeeklyPlan generateWeeklyPlan(UserProfile profile) {
         return engine.generateWeeklyPlan(profile);
     }
 
+    /**
+     * Multi-week program (progressive overload, deloads, recovery windows). Weeks are planned lazily on
+     * the consuming thread as the stream is read, so callers should stream them out rather than collect.
+     */
+    public Stream<TrainingWeek> generateProgram(UserProfile profile, int weeks) {
+        return periodization.program(profile, weeks);
+    }
+
+    /**
+     * Non-blocking variant of map -> generateWeeklyPlan -> aggregateShoppingList, with persistence.
+     * map -> target calories -> (workout plan || meal plan) -> shopping list -> persist.
+     * Catalog enrichment has no stage of its own: mapping resolves typed terms against the catalog
+     * vocabulary and the tenant overlay, and the meal stage plans from the region-priced catalog.
+     * Price lookup runs alongside planning; if it times out the shopping list is priced at the default
+     * unit price. Planning stages fail the future on timeout or a full bulkhead; persistence is best effort.
+     * Under overload (see LoadMonitor) the workout and meal stages are replaced by a FastPlannerEngine template.
+     */
+    public CompletableFuture<PlanResult> generateWeeklyPlanAsync(UserInputDTO dto) {
+        return pipeline(planning.supply(() -> mapToUserProfile(dto)), () -> { });
+    }
+
+    public CompletableFuture<PlanResult> generateWeeklyPlanAsync(UserProfile profile) {
+        return pipeline(CompletableFuture.completedFuture(profile), () -> { });
+    }
+
+    /**
+     * @param beforePlanning runs only when this request computes a plan (fast template, or the full plan
+     *                       as the leader of its flight), not for plan-cache hits or coalesced waiters;
+     *                       an exception from it fails the request, e.g. AdmissionService.Permit::limit
+     */
+    public CompletableFuture<PlanResult> generateWeeklyPlanAsync(UserProfile profile, Runnable beforePlanning) {
+        return pipeline(CompletableFuture.completedFuture(profile), beforePlanning);
+    }
+
+    private CompletableFuture<PlanResult> pipeline(CompletableFuture<UserProfile> mapped, Runnable beforePlanning) {
+        // stages run on bulkhead threads; each continues the caller's trace (if any) as a child span
+        Trace.Span span = Trace.current();
+        CompletableFuture<PlanContext> context = mapped.thenCompose(profile ->
+                planning.supply(Trace.traced(span, "context", () -> context(profile, span))));
+
+        CompletableFuture<Map<String, Double>> prices = context
+                .thenCompose(c -> io.supply(
+                        Trace.traced(span, "price.quote", () -> priceService.quote(c.profile.getRegion()))))
+                .completeOnTimeout(Map.of(), priceTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> Map.of());
+
+        CompletableFuture<PlanResult> priced = context.thenCompose(c -> {
+                    if (planCache.isEnabled()) {
+                        WeeklyPlan cached = planCache.get(c.fingerprint, c.targetKcal, c.catalogVersion);
+                        if (cached != null) {
+                            c.sharedPlan = true;
+                            return CompletableFuture.completedFuture(cached);
+                        }
+                    }
+                    if (fastEnabled && loadMonitor.serveFast(planning.getQueued())) {
+                        beforePlanning.run();
+                        WeeklyPlan fast = Trace.traced(span, "plan.fast",
+                                () -> fastEngine.generateWeeklyPlan(c.profile, c.targetKcal)).get();
+                        if (fast != null) return CompletableFuture.completedFuture(fast);
+                    }
+                    // identical profiles arriving together (a preset during a campaign) share one full plan
+                    // a coalesced waiter shares the leader's plan; the compute supplier runs inside run()
+                    boolean[] led = new boolean[1];
+                    CompletableFuture<WeeklyPlan> flight = flights.run(flightKey(c.fingerprint, c.targetKcal, c.catalogVersion), () -> {
+                        led[0] = true;
+                        beforePlanning.run(); // leader only
+                        return fullPlan(c).thenApply(plan -> {
+                            planCache.put(c.fingerprint, c.targetKcal, c.catalogVersion, plan);
+                            ShadowRunner s = shadow;
+                            if (s != null) s.offer(c.profile, c.targetKcal, c.fingerprint, plan);
+                            return plan;
+                        });
+                    });
+                    c.sharedPlan = !led[0] || planCache.isEnabled();
+                    return flight;
+                })
+                .thenCombine(prices, (plan, table) ->
+                        Trace.traced(span, "price", () -> price(context.join(), plan, table)).get());
+
+        return priced.thenCompose(result -> io.supply(Trace.traced(span, "persist", () -> planStore.save(result)))
+                .orTimeout(persistTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> result));
+    }
+
+    private PlanContext context(UserProfile profile, Trace.Span span) {
+        int targetKcal = engine.targetCalories(profile);
+        if (profile.getUserId() != null) tdeeStore.recordTarget(profile.getUserId(), targetKcal);
+        boolean[] workoutDays = engine.pickWorkoutDays(profile.getSchedule().getWorkoutDaysPerWeek());
+        return new PlanContext(profile, ProfileNormalizer.fingerprint(profile), engine.catalogVersion(),
+                targetKcal, workoutDays, span);
+    }
+
+    private CompletableFuture<WeeklyPlan> fullPlan(PlanContext c) {
+        long start = System.nanoTime();
+        CompletableFuture<List<List<PlannerEngine.Exercise>>> workouts =
+                planning.supply(Trace.traced(c.span, "plan.workouts", () -> engine.planWorkoutWeek(c.profile, c.workoutDays)))
+                        .orTimeout(planTimeoutMs, TimeUnit.MILLISECONDS);
+        CompletableFuture<List<PlannerEngine.DayPlan>> meals =
+                planning.supply(Trace.traced(c.span, "plan.meals", () -> engine.planMealWeek(c.profile, c.targetKcal)))
+                        .orTimeout(planTimeoutMs, TimeUnit.MILLISECONDS);
+        return workouts.thenCombine(meals, (w, m) -> engine.assemble(c.profile, c.targetKcal, c.workoutDays, w, m))
+                .whenComplete((plan, e) -> loadMonitor.recordFullPlan(System.nanoTime() - start));
+    }
+
+    /**
+     * One shared menu for all members, portioned per member (HouseholdPlanner). Planned as a single task
+     * on the planning bulkhead under the same timeout as a full plan.
+     */
+    public CompletableFuture<HouseholdPlanner.HouseholdPlan> generateHouseholdPlanAsync(List<UserProfile> members,
+                                                                                      double dailyBudget) {
+        Trace.Span span = Trace.current();
+        return planning.supply(Trace.traced(span, "plan.household", () -> household.plan(members, dailyBudget)))
+                .orTimeout(planTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** A plan saved by the pipeline; read from the store only, never re-planned. */
+    public Optional<PlanResult> findPlan(String planId) {
+        return planStore.find(planId);
+    }
+
+    public PlanCache getPlanCache() {
+        return planCache;
+    }
+
+    private static List<Object> flightKey(ProfileFingerprint fingerprint, int targetKcal, long catalogVersion) {
+        return List.of(fingerprint, targetKcal, catalogVersion);
+    }
+
+    /** Full-plan computations started, and requests that waited on one already running instead. */
+    public Map<String, Object> coalescingStats() {
+        return flights.stats();
+    }
+
+    public boolean isFastMode() {
+        return loadMonitor.isFastMode();
+    }
+
+    private PlanResult price(PlanContext c, WeeklyPlan plan, Map<String, Double> prices) {
+        Map<String, Integer> shoppingList = aggregateShoppingList(plan);
+        Map<String, Double> used = new HashMap<>();
+        double total = 0;
+        for (Map.Entry<String, Integer> e : shoppingList.entrySet()) {
+            Double unit = prices.get(e.getKey());
+            if (unit == null) unit = prices.getOrDefault(PriceTable.ANY_INGREDIENT, PriceService.DEFAULT_UNIT_PRICE);
+            used.put(e.getKey(), unit);
+            total += unit * e.getValue();
+        }
+        return new PlanResult(c.profile, plan, shoppingList, used, Math.round(total * 100.0) / 100.0, null, c.fingerprint,
+                c.catalogVersion, c.sharedPlan);
+    }
+
+    private static class PlanContext {
+        final UserProfile profile;
+        final ProfileFingerprint fingerprint;
+        final long catalogVersion;
+        final int targetKcal;
+        final boolean[] workoutDays;
+        final Trace.Span span; // request span stages attach to, or null when untraced
+        volatile boolean sharedPlan; // see PlanResult.sharedPlan
+
+        PlanContext(UserProfile profile, ProfileFingerprint fingerprint, long catalogVersion, int targetKcal,
+                    boolean[] workoutDays, Trace.Span span) {
+            this.profile = profile;
+            this.fingerprint = fingerprint;
+            this.catalogVersion = catalogVersion;
+            this.targetKcal = targetKcal;
+            this.workoutDays = workoutDays;
+            this.span = span;
+        }
+    }
+
+    /**
+     * Folds one weigh-in into the user's adaptive TDEE; once enough are logged, their plans target it
+     * instead of the formula. Without a reported intake the last target they were served is assumed.
+     */
+    public TdeeStore.Estimate logProgress(String userId, LocalDate date, double weightKg, double intakeKcal) {
+        tdeeStore.recordWeight(userId, (int) date.toEpochDay(), weightKg, intakeKcal);
+        return tdeeStore.snapshot(userId);
+    }
+
+    public TdeeStore.Estimate progress(String userId) {
+        return tdeeStore.snapshot(userId);
+    }
+
+    /**
+     * Relative cost of planning for this profile, 1.0 being a bodyweight beginner with no preferences.
+     * Scales with the eligible catalog pools and the per-meal preference checks done on every day.
+     */
+    public double estimateCost(UserProfile profile) {
+        int prefs = profile.getDiet().getAllergies().size() + profile.getDiet().getDislikedIngredients().size()
+                + profile.getDiet().getPreferredCuisines().size();
+        int workoutDays = Math.max(3, Math.min(6, profile.getSchedule().getWorkoutDaysPerWeek()));
+        double work = engine.mealPoolSize(profile) * 7.0 * (1 + prefs)
+                + engine.exercisePoolSize(profile) * (double) workoutDays;
+        return Math.max(1.0, work / BASELINE_WORK);
+    }
+
     public Map<String, Integer> aggregateShoppingList(WeeklyPlan plan) {
         Map<String, Integer> counts = new HashMap<>();
         if (plan == null) return counts;
@@ -70,4 +448,13 @@ public class PlannerService {
         }
         return counts;
     }
+
+    /** Combined ingredient totals, cost and per-day demand for a whole cohort of plans. */
+    public CohortReport aggregateCohort(Stream<WeeklyPlan> plans) {
+        return CohortReport.of(plans);
+    }
+
+    public CohortReport aggregateCohort(Iterator<WeeklyPlan> plans) {
+        return CohortReport.of(plans);
+    }
 }
@@ -0,0 +1,121 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.PriceTable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Local stand-in for the external pricing service, backed by regional ingredient price tables.
+ * - Prices come from the bundled prices/ingredient-prices.csv, or from planner.prices.file when set.
+ *   That file is re-read when its modification time changes (checked every planner.prices.poll-seconds),
+ *   e.g. for weekly price updates; a file that fails to parse leaves the current prices in place.
+ * - Listeners (the engine's MealPricing) get every new table and re-cost incrementally.
+ */
+@Service
+public class PriceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceService.class);
+
+    public static final double DEFAULT_UNIT_PRICE = PriceTable.FALLBACK_PRICE;
+    private static final String BUNDLED = "/prices/ingredient-prices.csv";
+
+    @Value("${planner.prices.file:}")
+    private String priceFile = "";
+
+    @Value("${planner.prices.poll-seconds:60}")
+    private long pollSeconds = 60;
+
+    private volatile PriceTable table;
+    private final List<Consumer<PriceTable>> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService watcher;
+    private long loadedModified;
+
+    @PostConstruct
+    public void load() {
+        table = bundled();
+        if (priceFile == null || priceFile.isBlank()) return;
+        reloadIfChanged();
+        watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "price-file-watch");
+            t.setDaemon(true);
+            return t;
+        });
+        watcher.scheduleWithFixedDelay(this::reloadIfChanged, pollSeconds, pollSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (watcher != null) watcher.shutdownNow();
+    }
+
+    public PriceTable table() {
+        return table;
+    }
+
+    /** Called with each new table after it replaces the current one. */
+    public void onUpdate(Consumer<PriceTable> listener) {
+        listeners.add(listener);
+    }
+
+    /** Unit prices for the region; its "*" entry, if any, is the price of unlisted ingredients. */
+    public Map<String, Double> quote(String region) {
+        PriceTable t = table;
+        return t.prices(t.resolve(region));
+    }
+
+    /** Point update from a price feed: one ingredient in one region. */
+    public synchronized void update(String region, String ingredient, double price) {
+        publish(table.with(region, ingredient, price));
+    }
+
+    private synchronized void reloadIfChanged() {
+        Path path = Path.of(priceFile);
+        try {
+            long modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == loadedModified) return;
+            PriceTable next;
+            try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                next = PriceTable.parse(in);
+            }
+            loadedModified = modified;
+            publish(next);
+        } catch (IOException e) {
+            log.warn("price file {} not loaded: {}", path, e.getMessage());
+        }
+    }
+
+    private void publish(PriceTable next) {
+        table = next;
+        for (Consumer<PriceTable> l : listeners) l.accept(next);
+    }
+
+    /** The price tables shipped with the app. */
+    public static PriceTable bundled() {
+        try (InputStream in = PriceService.class.getResourceAsStream(BUNDLED)) {
+            if (in == null) throw new IllegalStateException(BUNDLED + " missing from the class path");
+            return PriceTable.parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
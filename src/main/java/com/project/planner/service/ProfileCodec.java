@@ -0,0 +1,327 @@
+package com.project.planner.service;
+
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.model.ActivityLevel;
+import com.project.planner.model.DietPreference;
+import com.project.planner.model.Equipment;
+import com.project.planner.model.Experience;
+import com.project.planner.model.Goal;
+import com.project.planner.model.Sex;
+import com.project.planner.model.UserProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Packed binary encoding of a profile, typically ~45 bytes instead of the ~900 byte object graph of a
+ * UserProfile (Strings, three HashSets, Equipment and Schedule objects).
+ * - Sex/activity/experience/goal are enum codes in one nibble each; diet and equipment are bit flags.
+ * - Numbers are varints; height and weight in tenths, budget in hundredths, falling back to the raw
+ *   double when a value has more decimals, so every value round-trips exactly.
+ * - Region, tenant, allergies, disliked ingredients and cuisines are ids in this codec's vocabulary, as are
+ *   enum values the enums don't know (kept verbatim, the engine's reading of them is unchanged).
+ * - Lists are stored as ProfileMapper normalizes them (trimmed; allergies and dislikes lower-cased,
+ *   first occurrence kept), so dto -> bytes -> dto maps to the same UserProfile as the original dto.
+ * Bytes are only meaningful to the codec instance that wrote them. Thread-safe; Spring-free like ProfileMapper.
+ */
+public class ProfileCodec {
+
+    private static final int VERSION = 2;
+    private static final int UNSET = 0, VERBATIM = 15;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    // id -> string, replaced on growth; readers never lock
+    private volatile String[] strings = new String[64];
+    private int nextId = 1; // 0 encodes null
+
+    public byte[] encode(UserInputDTO dto) {
+        Writer w = new Writer();
+        w.write(VERSION);
+        int sex = code(Sex.parse(dto.getSex()), dto.getSex());
+        int activity = code(ActivityLevel.parse(dto.getActivityLevel()), dto.getActivityLevel());
+        int experience = code(Experience.parse(dto.getExperience()), dto.getExperience());
+        int goal = code(Goal.parse(dto.getGoal()), dto.getGoal());
+        w.write(sex | activity << 4);
+        w.write(experience | goal << 4);
+        w.write(flag(dto.isVegetarian(), 0) | flag(dto.isVegan(), 1) | flag(dto.isLactoseFree(), 2)
+                | flag(dto.isGlutenFree(), 3) | flag(dto.isHalal(), 4));
+        w.write(flag(dto.isHasGym(), 0) | flag(dto.isHasDumbbells(), 1) | flag(dto.isHasResistanceBands(), 2)
+                | flag(dto.isHasYogaMat(), 3) | flag(dto.isCanRunOutside(), 4));
+        if (sex == VERBATIM) w.varint(intern(dto.getSex()));
+        if (activity == VERBATIM) w.varint(intern(dto.getActivityLevel()));
+        if (experience == VERBATIM) w.varint(intern(dto.getExperience()));
+        if (goal == VERBATIM) w.varint(intern(dto.getGoal()));
+
+        w.zigzag(dto.getAge());
+        w.decimal(dto.getHeightCm(), 10);
+        w.decimal(dto.getWeightKg(), 10);
+        w.zigzag(dto.getWorkoutDaysPerWeek());
+        w.zigzag(dto.getMinutesPerWorkout());
+        w.decimal(dto.getDailyFoodBudget(), 100);
+        w.varint(intern(dto.getRegion()));
+        w.varint(intern(dto.getTenant()));
+        w.ids(this, split(dto.getAllergies(), true));
+        w.ids(this, split(dto.getDislikedIngredients(), true));
+        w.ids(this, split(dto.getPreferredCuisines(), false));
+        w.utf8(dto.getUserId());
+        w.utf8(dto.getName());
+        return w.toByteArray();
+    }
+
+    public UserInputDTO decode(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        UserInputDTO dto = new UserInputDTO();
+        int[] enums = r.header();
+        int diet = r.read(), equipment = r.read();
+        dto.setSex(enumValue(Sex.values(), enums[0], r));
+        dto.setActivityLevel(enumValue(ActivityLevel.values(), enums[1], r));
+        dto.setExperience(enumValue(Experience.values(), enums[2], r));
+        dto.setGoal(enumValue(Goal.values(), enums[3], r));
+        dto.setVegetarian(bit(diet, 0));
+        dto.setVegan(bit(diet, 1));
+        dto.setLactoseFree(bit(diet, 2));
+        dto.setGlutenFree(bit(diet, 3));
+        dto.setHalal(bit(diet, 4));
+        dto.setHasGym(bit(equipment, 0));
+        dto.setHasDumbbells(bit(equipment, 1));
+        dto.setHasResistanceBands(bit(equipment, 2));
+        dto.setHasYogaMat(bit(equipment, 3));
+        dto.setCanRunOutside(bit(equipment, 4));
+
+        dto.setAge(r.zigzag());
+        dto.setHeightCm(r.decimal(10));
+        dto.setWeightKg(r.decimal(10));
+        dto.setWorkoutDaysPerWeek(r.zigzag());
+        dto.setMinutesPerWorkout(r.zigzag());
+        dto.setDailyFoodBudget(r.decimal(100));
+        dto.setRegion(string(r.varint()));
+        dto.setTenant(string(r.varint()));
+        dto.setAllergies(joined(r));
+        dto.setDislikedIngredients(joined(r));
+        dto.setPreferredCuisines(joined(r));
+        dto.setUserId(r.utf8());
+        dto.setName(r.utf8());
+        return dto;
+    }
+
+    /** Same result as ProfileMapper.toUserProfile(decode(bytes)) without the intermediate strings. */
+    public UserProfile decodeProfile(byte[] bytes) {
+        Reader r = new Reader(bytes);
+        UserProfile u = new UserProfile();
+        int[] enums = r.header();
+        int diet = r.read(), equipment = r.read();
+        u.setSex(enumValue(Sex.values(), enums[0], r));
+        u.setActivityLevel(enumValue(ActivityLevel.values(), enums[1], r));
+        u.setExperience(enumValue(Experience.values(), enums[2], r));
+        u.setGoal(enumValue(Goal.values(), enums[3], r));
+        DietPreference d = u.getDiet();
+        d.setVegetarian(bit(diet, 0));
+        d.setVegan(bit(diet, 1));
+        d.setLactoseFree(bit(diet, 2));
+        d.setGlutenFree(bit(diet, 3));
+        d.setHalal(bit(diet, 4));
+        Equipment e = u.getEquipment();
+        e.setHasGym(bit(equipment, 0));
+        e.setHasDumbbells(bit(equipment, 1));
+        e.setHasResistanceBands(bit(equipment, 2));
+        e.setHasYogaMat(bit(equipment, 3));
+        e.setCanRunOutside(bit(equipment, 4));
+
+        u.setAge(r.zigzag());
+        u.setHeightCm(r.decimal(10));
+        u.setWeightKg(r.decimal(10));
+        u.getSchedule().setWorkoutDaysPerWeek(r.zigzag());
+        u.getSchedule().setMinutesPerWorkout(r.zigzag());
+        u.getSchedule().setDailyFoodBudget(r.decimal(100));
+        u.setRegion(string(r.varint()));
+        u.setTenant(string(r.varint()));
+        readInto(r, d.getAllergies());
+        readInto(r, d.getDislikedIngredients());
+        readInto(r, d.getPreferredCuisines());
+        String userId = r.utf8();
+        u.setUserId(userId != null && !userId.isBlank() ? userId.trim() : null);
+        u.setName(r.utf8());
+        return ProfileNormalizer.normalize(u);
+    }
+
+    /** Distinct strings interned so far (regions, tenants, ingredients, cuisines, unrecognized enum values). */
+    public synchronized int vocabularySize() {
+        return nextId - 1;
+    }
+
+    // ---------- vocabulary ----------
+
+    synchronized int intern(String s) {
+        if (s == null) return 0;
+        Integer id = ids.get(s);
+        if (id != null) return id;
+        int next = nextId++;
+        String[] table = strings;
+        if (next == table.length) table = Arrays.copyOf(table, table.length * 2);
+        table[next] = s;
+        ids.put(s, next);
+        strings = table; // volatile write publishes the entry
+        return next;
+    }
+
+    private String string(int id) {
+        return id == 0 ? null : strings[id];
+    }
+
+    // ---------- helpers ----------
+
+    private int code(Enum<?> parsed, String raw) {
+        if (raw == null) return UNSET;
+        // only canonical spellings get a code, so decoding returns exactly what was encoded
+        return parsed != null && parsed.name().equals(raw) ? parsed.ordinal() + 1 : VERBATIM;
+    }
+
+    private String enumValue(Enum<?>[] values, int code, Reader r) {
+        if (code == UNSET) return null;
+        if (code == VERBATIM) return string(r.varint());
+        return values[code - 1].name();
+    }
+
+    private static int flag(boolean b, int bit) {
+        return b ? 1 << bit : 0;
+    }
+
+    private static boolean bit(int flags, int bit) {
+        return (flags & 1 << bit) != 0;
+    }
+
+    /** ProfileMapper's list normalization, de-duplicated in first-seen order. */
+    private static Set<String> split(String csv, boolean lowerCase) {
+        Set<String> out = new LinkedHashSet<>();
+        if (csv == null || csv.isBlank()) return out;
+        for (String s : csv.split(",")) out.add(lowerCase ? s.trim().toLowerCase() : s.trim());
+        return out;
+    }
+
+    private String joined(Reader r) {
+        int n = r.varint();
+        if (n == 0) return null;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(string(r.varint()));
+        }
+        return sb.toString();
+    }
+
+    private void readInto(Reader r, Collection<String> into) {
+        for (int n = r.varint(); n > 0; n--) into.add(string(r.varint()));
+    }
+
+    private static final class Writer {
+        private byte[] buf = new byte[48];
+        private int pos;
+
+        void write(int b) {
+            if (pos == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+            buf[pos++] = (byte) b;
+        }
+
+        void varint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                write((int) (v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+
+        void zigzag(int v) {
+            varint(((v << 1) ^ (v >> 31)) & 0xFFFFFFFFL);
+        }
+
+        // even: value * scale as an integer; 1: the raw double follows
+        void decimal(double v, int scale) {
+            long n = Math.round(v * scale);
+            if (n >= 0 && n < 1L << 40 && (double) n / scale == v) {
+                varint(n << 1);
+            } else {
+                varint(1);
+                long bits = Double.doubleToRawLongBits(v);
+                for (int i = 0; i < 8; i++) write((int) (bits >>> (8 * i)));
+            }
+        }
+
+        void ids(ProfileCodec codec, Set<String> values) {
+            varint(values.size());
+            for (String s : values) varint(codec.intern(s));
+        }
+
+        void utf8(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            varint(b.length + 1);
+            for (byte x : b) write(x);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int[] header() {
+            int version = read();
+            if (version != VERSION) throw new IllegalArgumentException("Unsupported profile encoding v" + version);
+            int a = read(), b = read();
+            return new int[]{a & 15, a >>> 4, b & 15, b >>> 4};
+        }
+
+        int read() {
+            return buf[pos++] & 0xFF;
+        }
+
+        long varlong() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = read();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        int zigzag() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        double decimal(int scale) {
+            long n = varlong();
+            if ((n & 1) == 0) return (double) (n >>> 1) / scale;
+            long bits = 0;
+            for (int i = 0; i < 8; i++) bits |= (long) read() << (8 * i);
+            return Double.longBitsToDouble(bits);
+        }
+
+        String utf8() {
+            int n = varint();
+            if (n == 0) return null;
+            String s = new String(buf, pos, n - 1, StandardCharsets.UTF_8);
+            pos += n - 1;
+            return s;
+        }
+    }
+}
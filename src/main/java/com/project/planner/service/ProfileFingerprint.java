@@ -0,0 +1,43 @@
+package com.project.planner.service;
+
+/**
+ * 128-bit fingerprint of a canonical profile (see ProfileNormalizer.fingerprint).
+ * Equal fingerprints mean the engine reads the two profiles identically; the collision chance is
+ * negligible at any cohort size (~1e-20 for a billion profiles).
+ */
+public final class ProfileFingerprint {
+
+    private final long hi;
+    private final long lo;
+
+    public ProfileFingerprint(long hi, long lo) {
+        this.hi = hi;
+        this.lo = lo;
+    }
+
+    public static ProfileFingerprint parse(String hex) {
+        if (hex == null || hex.length() != 32) throw new IllegalArgumentException("Expected 32 hex digits: " + hex);
+        return new ProfileFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    public long hi() { return hi; }
+
+    public long lo() { return lo; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProfileFingerprint f && f.hi == hi && f.lo == lo;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (lo ^ lo >>> 32);
+    }
+
+    /** 32 lower-case hex digits. */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", hi, lo);
+    }
+}
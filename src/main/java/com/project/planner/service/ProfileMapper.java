@@ -0,0 +1,58 @@
+package com.project.planner.service;
+
+import com.project.planner.dto.UserInputDTO;
+import com.project.planner.model.UserProfile;
+
+/**
+ * Maps form/API/batch input onto the engine's UserProfile, in canonical form (ProfileNormalizer).
+ * Kept free of Spring so the batch CLI can use it without an application context.
+ */
+public final class ProfileMapper {
+
+    private ProfileMapper() {
+    }
+
+    public static UserProfile toUserProfile(UserInputDTO dto) {
+        UserProfile user = new UserProfile();
+
+        user.setUserId(dto.getUserId() != null && !dto.getUserId().isBlank() ? dto.getUserId().trim() : null);
+        user.setName(dto.getName());
+        user.setAge(dto.getAge());
+        user.setSex(dto.getSex());
+        user.setHeightCm(dto.getHeightCm());
+        user.setWeightKg(dto.getWeightKg());
+        user.setActivityLevel(dto.getActivityLevel());
+        user.setExperience(dto.getExperience());
+        user.setGoal(dto.getGoal());
+        user.setRegion(dto.getRegion());
+        user.setTenant(dto.getTenant());
+
+        user.getDiet().setVegetarian(dto.isVegetarian());
+        user.getDiet().setVegan(dto.isVegan());
+        user.getDiet().setLactoseFree(dto.isLactoseFree());
+        user.getDiet().setGlutenFree(dto.isGlutenFree());
+        user.getDiet().setHalal(dto.isHalal());
+
+        if (dto.getAllergies() != null && !dto.getAllergies().isBlank()) {
+            for (String a : dto.getAllergies().split(",")) user.getDiet().getAllergies().add(a.trim().toLowerCase());
+        }
+        if (dto.getDislikedIngredients() != null && !dto.getDislikedIngredients().isBlank()) {
+            for (String d : dto.getDislikedIngredients().split(",")) user.getDiet().getDislikedIngredients().add(d.trim().toLowerCase());
+        }
+        if (dto.getPreferredCuisines() != null && !dto.getPreferredCuisines().isBlank()) {
+            for (String c : dto.getPreferredCuisines().split(",")) user.getDiet().getPreferredCuisines().add(c.trim());
+        }
+
+        user.getEquipment().setHasGym(dto.isHasGym());
+        user.getEquipment().setHasDumbbells(dto.isHasDumbbells());
+        user.getEquipment().setHasResistanceBands(dto.isHasResistanceBands());
+        user.getEquipment().setHasYogaMat(dto.isHasYogaMat());
+        user.getEquipment().setCanRunOutside(dto.isCanRunOutside());
+
+        user.getSchedule().setWorkoutDaysPerWeek(dto.getWorkoutDaysPerWeek());
+        user.getSchedule().setMinutesPerWorkout(dto.getMinutesPerWorkout());
+        user.getSchedule().setDailyFoodBudget(dto.getDailyFoodBudget());
+
+        return ProfileNormalizer.normalize(user);
+    }
+}
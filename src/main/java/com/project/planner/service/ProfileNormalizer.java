@@ -0,0 +1,159 @@
+package com.project.planner.service;
+
+import com.project.planner.model.ActivityLevel;
+import com.project.planner.model.DietPreference;
+import com.project.planner.model.Experience;
+import com.project.planner.model.Goal;
+import com.project.planner.model.Sex;
+import com.project.planner.model.UserProfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Canonical form of a UserProfile, applied once when a profile enters the system (ProfileMapper,
+ * ProfileCodec) so the engine can compare values directly instead of re-folding case on every check.
+ * - sex/activityLevel/experience/goal become enum names, with the engine's defaults for unset or
+ *   unknown values (MALE, SEDENTARY, BEGINNER; LOSE_FAT when unset, MAINTAIN when unrecognized).
+ * - region, tenant, allergies, dislikes and cuisines are trimmed, whitespace-collapsed and lower-cased;
+ *   blank entries are dropped.
+ * - workoutDaysPerWeek is clamped to the 3..6 patterns the engine has, minutesPerWorkout to >= 10.
+ * Also Spring-free, so the batch CLI can use it.
+ */
+public final class ProfileNormalizer {
+
+    private ProfileNormalizer() {
+    }
+
+    /** Canonicalizes {@code u} in place and returns it. Idempotent. */
+    public static UserProfile normalize(UserProfile u) {
+        u.setSex(Sex.parse(u.getSex()) == Sex.FEMALE ? Sex.FEMALE.name() : Sex.MALE.name());
+        ActivityLevel activity = ActivityLevel.parse(u.getActivityLevel());
+        u.setActivityLevel((activity != null ? activity : ActivityLevel.SEDENTARY).name());
+        Experience experience = Experience.parse(u.getExperience());
+        u.setExperience((experience != null ? experience : Experience.BEGINNER).name());
+        Goal goal = Goal.parse(u.getGoal());
+        u.setGoal((goal != null ? goal : u.getGoal() == null ? Goal.LOSE_FAT : Goal.MAINTAIN).name());
+        u.setRegion(token(u.getRegion()));
+        u.setTenant(token(u.getTenant()));
+
+        DietPreference d = u.getDiet();
+        canonicalize(d.getAllergies());
+        canonicalize(d.getDislikedIngredients());
+        canonicalize(d.getPreferredCuisines());
+
+        u.getSchedule().setWorkoutDaysPerWeek(Math.max(3, Math.min(6, u.getSchedule().getWorkoutDaysPerWeek())));
+        u.getSchedule().setMinutesPerWorkout(Math.max(10, u.getSchedule().getMinutesPerWorkout()));
+        return u;
+    }
+
+    /** Lower-case, trimmed, single-spaced; null for blank. */
+    public static String token(String s) {
+        if (s == null) return null;
+        String t = s.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return t.isEmpty() ? null : t;
+    }
+
+    private static void canonicalize(Set<String> values) {
+        if (values.isEmpty()) return;
+        Set<String> canonical = new TreeSet<>();
+        for (String v : values) {
+            String t = token(v);
+            if (t != null) canonical.add(t);
+        }
+        values.clear();
+        values.addAll(canonical);
+    }
+
+    /**
+     * Fingerprint over every field the planner's output depends on, of a normalized profile.
+     * name and userId are excluded, so plans can be shared between users; anything derived from
+     * per-user state (such as an adaptive calorie target) has to be part of a cache key separately.
+     */
+    public static ProfileFingerprint fingerprint(UserProfile u) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(String.valueOf(u.getSex()));
+            out.writeUTF(String.valueOf(u.getActivityLevel()));
+            out.writeUTF(String.valueOf(u.getExperience()));
+            out.writeUTF(String.valueOf(u.getGoal()));
+            out.writeInt(u.getAge());
+            out.writeLong(Double.doubleToLongBits(u.getHeightCm() + 0.0)); // + 0.0 folds -0.0 into 0.0
+            out.writeLong(Double.doubleToLongBits(u.getWeightKg() + 0.0));
+            DietPreference d = u.getDiet();
+            out.writeBoolean(d.isVegetarian());
+            out.writeBoolean(d.isVegan());
+            out.writeBoolean(d.isLactoseFree());
+            out.writeBoolean(d.isGlutenFree());
+            out.writeBoolean(d.isHalal());
+            writeSorted(out, d.getAllergies());
+            writeSorted(out, d.getDislikedIngredients());
+            writeSorted(out, d.getPreferredCuisines());
+            out.writeBoolean(u.getEquipment().isHasGym());
+            out.writeBoolean(u.getEquipment().isHasDumbbells());
+            out.writeBoolean(u.getEquipment().isHasResistanceBands());
+            out.writeInt(u.getSchedule().getWorkoutDaysPerWeek());
+            out.writeInt(u.getSchedule().getMinutesPerWorkout());
+            out.writeLong(Double.doubleToLongBits(u.getSchedule().getDailyFoodBudget() + 0.0));
+            out.writeUTF(String.valueOf(u.getRegion()));
+            // last and only when set, so profiles on the shared catalog keep their fingerprints
+            if (u.getTenant() != null) out.writeUTF(u.getTenant());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return murmur3(bytes.toByteArray());
+    }
+
+    private static void writeSorted(DataOutputStream out, Set<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String v : values instanceof TreeSet ? values : new TreeSet<>(values)) out.writeUTF(v);
+    }
+
+    // MurmurHash3 x64 128-bit, seed 0
+    private static ProfileFingerprint murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L, c2 = 0x4cf5ad432745937fL;
+        long h1 = 0, h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16), k2 = getLong(data, i * 16 + 8);
+            k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27); h1 += h2; h1 = h1 * 5 + 0x52dce729;
+            k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31); h2 += h1; h2 = h2 * 5 + 0x38495ab5;
+        }
+        long k1 = 0, k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            long b = data[i] & 0xFFL;
+            if (i - tail >= 8) k2 |= b << (8 * (i - tail - 8));
+            else k1 |= b << (8 * (i - tail));
+        }
+        if (k2 != 0) { k2 *= c2; k2 = Long.rotateLeft(k2, 33); k2 *= c1; h2 ^= k2; }
+        if (k1 != 0) { k1 *= c1; k1 = Long.rotateLeft(k1, 31); k1 *= c2; h1 ^= k1; }
+        h1 ^= data.length; h2 ^= data.length;
+        h1 += h2; h2 += h1;
+        h1 = fmix(h1); h2 = fmix(h2);
+        h1 += h2; h2 += h1;
+        return new ProfileFingerprint(h1, h2);
+    }
+
+    private static long getLong(byte[] b, int off) {
+        long v = 0;
+        for (int i = 7; i >= 0; i--) v = v << 8 | (b[off + i] & 0xFFL);
+        return v;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,249 @@
+package com.project.planner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.logic.PlannerEngine.DayPlan;
+import com.project.planner.logic.PlannerEngine.Meal;
+import com.project.planner.logic.PlannerEngine.WeeklyPlan;
+import com.project.planner.logic.PlanningEngine;
+import com.project.planner.model.UserProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shadow mode: a sample of live full plans is re-planned by a candidate PlanningEngine off the
+ * request path, and the two are compared.
+ * - Timing and allocation: the primary (a fork, so live plans are unaffected) and the candidate plan
+ *   the same profile back to back on the shadow thread, so neither queueing nor the pipeline's
+ *   parallel stages skew the delta.
+ * - Output: the candidate's week is compared with the plan the user actually got: mean daily calorie
+ *   deviation from target, weekly cost against budget, meal overlap (Jaccard over meal names) and
+ *   whether pickWorkoutDays produced the same training-day layout.
+ * - Results are summed into stats() (GET /api/shadow) and, if a report file is set, appended to it as
+ *   one JSON object per comparison.
+ * - One daemon thread with a short queue; samples arriving while it is full are dropped and counted.
+ * - Nothing is sampled until warmUp() has built both engines' caches (pools, templates), so first-use
+ *   builds never count against either side.
+ */
+public class ShadowRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ShadowRunner.class);
+
+    private static final int QUEUE_SIZE = 64;
+    private static final int LATENCY_WINDOW = 1024;
+
+    private final PlanningEngine primary;
+    private final PlanningEngine candidate;
+    private final double sampleRate;
+    private final Path report;
+    private final ObjectMapper json = new ObjectMapper();
+    private final ThreadPoolExecutor pool;
+    private final com.sun.management.ThreadMXBean threads;
+
+    // all below guarded by this
+    private long compared, dropped, failed, candidateDeclined;
+    private long layoutMatches;
+    private double sumPrimaryMs, sumCandidateMs, sumPrimaryAlloc, sumCandidateAlloc;
+    private double sumKcalDevPrimary, sumKcalDevCandidate, sumBudgetDevPrimary, sumBudgetDevCandidate, sumOverlap;
+    private final double[] latencyDeltas = new double[LATENCY_WINDOW];
+    private volatile boolean warm;
+
+    public ShadowRunner(PlanningEngine primary, PlanningEngine candidate, double sampleRate, Path report) {
+        this.primary = primary;
+        this.candidate = candidate;
+        this.sampleRate = sampleRate;
+        this.report = report;
+        this.pool = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+            Thread t = new Thread(r, "planner-shadow");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        this.threads = mx instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()
+                ? sun : null;
+    }
+
+    /** Warms the primary and the candidate (see PlanningEngine.warmUp), then starts sampling. */
+    public void warmUp(ExecutorService pool, long budgetMillis) throws InterruptedException {
+        primary.warmUp(pool, budgetMillis);
+        candidate.warmUp(pool, budgetMillis);
+        warm = true;
+    }
+
+    /** Queues a comparison for a sampled share of calls once warm; never blocks the caller. */
+    public void offer(UserProfile u, int targetKcal, ProfileFingerprint fingerprint, WeeklyPlan served) {
+        if (!warm || ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+        try {
+            pool.execute(() -> compare(u, targetKcal, fingerprint, served));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                dropped++;
+            }
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void compare(UserProfile u, int targetKcal, ProfileFingerprint fingerprint, WeeklyPlan served) {
+        try {
+            Run p = run(primary, u, targetKcal);
+            Run c = run(candidate, u, targetKcal);
+            WeeklyPlan shadow = c.plan;
+            if (shadow == null) {
+                synchronized (this) {
+                    candidateDeclined++;
+                }
+                return;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("time", Instant.now().toString());
+            row.put("profile", String.valueOf(fingerprint));
+            row.put("candidate", candidate.name());
+            row.put("primaryMs", p.nanos / 1e6);
+            row.put("candidateMs", c.nanos / 1e6);
+            row.put("primaryAllocBytes", p.allocBytes);
+            row.put("candidateAllocBytes", c.allocBytes);
+            row.put("kcalDeviationPrimary", kcalDeviation(served));
+            row.put("kcalDeviationCandidate", kcalDeviation(shadow));
+            row.put("budgetDeviationPrimary", budgetDeviation(served));
+            row.put("budgetDeviationCandidate", budgetDeviation(shadow));
+            row.put("mealOverlap", mealOverlap(served, shadow));
+            row.put("workoutDaysPrimary", layout(served));
+            row.put("workoutDaysCandidate", layout(shadow));
+            record(row, p, c);
+            if (report != null) write(row);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                failed++;
+            }
+        }
+    }
+
+    private Run run(PlanningEngine engine, UserProfile u, int targetKcal) {
+        long tid = Thread.currentThread().getId();
+        long alloc = threads != null ? threads.getThreadAllocatedBytes(tid) : 0;
+        long start = System.nanoTime();
+        Run r = new Run();
+        r.plan = engine.plan(u, targetKcal);
+        r.nanos = System.nanoTime() - start;
+        r.allocBytes = threads != null ? threads.getThreadAllocatedBytes(tid) - alloc : -1;
+        return r;
+    }
+
+    private synchronized void record(Map<String, Object> row, Run p, Run c) {
+        double delta = (c.nanos - p.nanos) / 1e6;
+        latencyDeltas[(int) (compared % LATENCY_WINDOW)] = delta;
+        compared++;
+        sumPrimaryMs += p.nanos / 1e6;
+        sumCandidateMs += c.nanos / 1e6;
+        sumPrimaryAlloc += p.allocBytes;
+        sumCandidateAlloc += c.allocBytes;
+        sumKcalDevPrimary += (double) row.get("kcalDeviationPrimary");
+        sumKcalDevCandidate += (double) row.get("kcalDeviationCandidate");
+        sumBudgetDevPrimary += (double) row.get("budgetDeviationPrimary");
+        sumBudgetDevCandidate += (double) row.get("budgetDeviationCandidate");
+        sumOverlap += (double) row.get("mealOverlap");
+        if (row.get("workoutDaysPrimary").equals(row.get("workoutDaysCandidate"))) layoutMatches++;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("candidate", candidate.name());
+        out.put("sampleRate", sampleRate);
+        out.put("warm", warm);
+        out.put("compared", compared);
+        out.put("dropped", dropped);
+        out.put("failed", failed);
+        out.put("candidateDeclined", candidateDeclined);
+        if (compared == 0) return out;
+        double n = compared;
+        out.put("primaryMeanMs", round(sumPrimaryMs / n));
+        out.put("candidateMeanMs", round(sumCandidateMs / n));
+        double[] window = Arrays.copyOf(latencyDeltas, (int) Math.min(compared, LATENCY_WINDOW));
+        Arrays.sort(window);
+        out.put("latencyDeltaP50Ms", round(window[window.length / 2]));
+        out.put("latencyDeltaP95Ms", round(window[Math.min(window.length - 1, (int) (window.length * 0.95))]));
+        out.put("primaryMeanAllocBytes", Math.round(sumPrimaryAlloc / n));
+        out.put("candidateMeanAllocBytes", Math.round(sumCandidateAlloc / n));
+        out.put("kcalDeviationPrimary", round(sumKcalDevPrimary / n));
+        out.put("kcalDeviationCandidate", round(sumKcalDevCandidate / n));
+        out.put("budgetDeviationPrimary", round(sumBudgetDevPrimary / n));
+        out.put("budgetDeviationCandidate", round(sumBudgetDevCandidate / n));
+        out.put("meanMealOverlap", round(sumOverlap / n));
+        out.put("workoutLayoutMatchRate", round(layoutMatches / n));
+        return out;
+    }
+
+    /** Mean |day calories - target| / target over the week. */
+    static double kcalDeviation(WeeklyPlan plan) {
+        double sum = 0;
+        for (DayPlan d : plan.days) sum += Math.abs(d.totalCalories - d.targetCalories) / (double) Math.max(1, d.targetCalories);
+        return round(sum / Math.max(1, plan.days.size()));
+    }
+
+    /** (weekly cost - weekly budget) / weekly budget; positive means over budget. */
+    static double budgetDeviation(WeeklyPlan plan) {
+        return plan.weeklyBudget > 0 ? round((plan.weeklyCost - plan.weeklyBudget) / plan.weeklyBudget) : 0;
+    }
+
+    /** Jaccard similarity of the meal-name multisets of the two weeks. */
+    static double mealOverlap(WeeklyPlan a, WeeklyPlan b) {
+        Map<String, int[]> counts = new HashMap<>();
+        for (DayPlan d : a.days) for (Meal m : d.meals) counts.computeIfAbsent(m.name, k -> new int[2])[0]++;
+        for (DayPlan d : b.days) for (Meal m : d.meals) counts.computeIfAbsent(m.name, k -> new int[2])[1]++;
+        int shared = 0, total = 0;
+        for (int[] c : counts.values()) {
+            shared += Math.min(c[0], c[1]);
+            total += Math.max(c[0], c[1]);
+        }
+        return total == 0 ? 1.0 : round(shared / (double) total);
+    }
+
+    /** Training days as a 7-character string, e.g. "X.X.X.." (Monday first). */
+    static String layout(WeeklyPlan plan) {
+        StringBuilder sb = new StringBuilder();
+        for (DayPlan d : plan.days) sb.append(d.restDay ? '.' : 'X');
+        return sb.toString();
+    }
+
+    private void write(Map<String, Object> row) {
+        try (BufferedWriter out = Files.newBufferedWriter(report, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(json.writeValueAsString(row));
+            out.newLine();
+        } catch (IOException e) {
+            log.warn("shadow report {} not written: {}", report, e.getMessage());
+        }
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10000.0) / 10000.0;
+    }
+
+    private static final class Run {
+        WeeklyPlan plan;
+        long nanos;
+        long allocBytes;
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.planner.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: concurrent calls with the same key share one in-flight computation.
+ * - The first caller for a key leads: only its {@code compute} runs, so anything only a computation
+ *   should pay for (a concurrency permit) is charged there. Callers arriving while it runs join it;
+ *   their {@code compute} is never called. Success and failure (including timeouts) reach every caller.
+ * - Each caller gets its own copy of the result future, so completing one doesn't complete the others.
+ * - An entry lives only while its computation runs; completed results are not kept (see PlanCache).
+ * Spring-free.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong computations = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public CompletableFuture<V> run(K key, Supplier<CompletableFuture<V>> compute) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> shared = inFlight.putIfAbsent(key, mine);
+        if (shared != null) {
+            coalesced.incrementAndGet();
+            return shared.copy();
+        }
+        computations.incrementAndGet();
+        CompletableFuture<V> work;
+        try {
+            work = compute.get();
+        } catch (RuntimeException | Error e) {
+            work = CompletableFuture.failedFuture(e);
+        }
+        work.whenComplete((v, e) -> {
+            inFlight.remove(key, mine);
+            if (e != null) {
+                failures.incrementAndGet();
+                mine.completeExceptionally(e);
+            } else {
+                mine.complete(v);
+            }
+        });
+        return mine.copy();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("computations", computations.get());
+        out.put("coalesced", coalesced.get());
+        out.put("failures", failures.get());
+        out.put("inFlight", inFlight.size());
+        return out;
+    }
+}
@@ -0,0 +1,125 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.Trace;
+import com.project.planner.logic.Trace.Span;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.Timespan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Opt-in JFR recording for slow plan requests, for after-the-fact analysis in JMC or `jfr print`.
+ * - PlanRequest events span a whole traced request and are kept only above the latency threshold
+ *   (JFR's own threshold filter); for those requests every trace span is committed as a PlanStage
+ *   event with its pool size, greedy iterations and chosen meals.
+ * - The recording also samples execution (jdk.ExecutionSample), so the time window of a slow
+ *   request can be rendered as a flame graph.
+ * - Written to the destination file when the app stops; `jcmd <pid> JFR.dump name=planner-slow-requests`
+ *   snapshots it while running.
+ */
+public class SlowRequestRecorder {
+
+    public static final String RECORDING_NAME = "planner-slow-requests";
+    private static final Duration SAMPLE_PERIOD = Duration.ofMillis(20);
+
+    private final Recording recording = new Recording();
+
+    public SlowRequestRecorder(Duration threshold, Path destination, Duration maxAge) throws IOException {
+        recording.setName(RECORDING_NAME);
+        recording.enable(PlanRequestEvent.class).withThreshold(threshold);
+        recording.enable(PlanStageEvent.class);
+        recording.enable("jdk.ExecutionSample").withPeriod(SAMPLE_PERIOD);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setDestination(destination);
+        recording.start();
+    }
+
+    /** Called when the trace starts, so the request event covers the request's real time window. */
+    public void begin(Trace trace) {
+        PlanRequestEvent event = new PlanRequestEvent();
+        event.begin();
+        trace.attach(event);
+    }
+
+    /** Commits the request and its stages if the request took longer than the threshold. */
+    public void end(Trace trace) {
+        if (!(trace.attachment() instanceof PlanRequestEvent event)) return;
+        event.end();
+        if (!event.shouldCommit()) return;
+        event.request = trace.root().name;
+        event.traceId = trace.traceId();
+        for (Span s : trace.spans()) {
+            if (s.durationNanos() < 0 || s == trace.root()) continue;
+            PlanStageEvent stage = new PlanStageEvent();
+            stage.traceId = event.traceId;
+            stage.stage = s.name;
+            stage.durationNanos = s.durationNanos();
+            stage.poolSize = intTag(s, "pool.size");
+            stage.iterations = intTag(s, "iterations");
+            stage.chosenMeals = s.tag("meals.chosen");
+            stage.tags = s.tags().toString();
+            stage.commit();
+            if (stage.poolSize >= 0) event.poolSize = stage.poolSize;
+            if (stage.iterations >= 0) event.iterations = stage.iterations;
+            if (stage.chosenMeals != null) event.chosenMeals = stage.chosenMeals;
+        }
+        event.commit();
+    }
+
+    public void stop() {
+        recording.stop(); // writes the destination file
+        recording.close();
+    }
+
+    private static int intTag(Span s, String key) {
+        String v = s.tag(key);
+        return v == null ? -1 : Integer.parseInt(v);
+    }
+
+    @Name("com.project.planner.PlanRequest")
+    @Label("Slow Plan Request")
+    @Category("Planner")
+    @Description("A traced plan request that exceeded the latency threshold")
+    public static class PlanRequestEvent extends Event {
+        @Label("Request")
+        public String request;
+        @Label("Trace Id")
+        public String traceId;
+        @Label("Meal Pool Size")
+        public int poolSize = -1;
+        @Label("Greedy Iterations")
+        public int iterations = -1;
+        @Label("Chosen Meals")
+        public String chosenMeals;
+    }
+
+    @Name("com.project.planner.PlanStage")
+    @Label("Plan Stage")
+    @Category("Planner")
+    @Description("One trace span of a slow plan request")
+    public static class PlanStageEvent extends Event {
+        @Label("Trace Id")
+        public String traceId;
+        @Label("Stage")
+        public String stage;
+        @Label("Stage Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        public long durationNanos;
+        @Label("Meal Pool Size")
+        public int poolSize = -1;
+        @Label("Greedy Iterations")
+        public int iterations = -1;
+        @Label("Chosen Meals")
+        public String chosenMeals;
+        @Label("Tags")
+        public String tags;
+    }
+}
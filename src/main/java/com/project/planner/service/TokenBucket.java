@@ -0,0 +1,48 @@
+package com.project.planner.service;
+
+/**
+ * Cost-weighted token bucket. Refills continuously at {@code ratePerSec} up to {@code capacity};
+ * a request takes as many tokens as its estimated cost.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double ratePerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double ratePerSec) {
+        this.capacity = capacity;
+        this.ratePerNano = ratePerSec / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /** @return 0 if the tokens were taken, otherwise the nanos until enough would be available. */
+    public synchronized long tryTake(double cost, long now) {
+        refill(now);
+        double need = Math.min(cost, capacity); // a single request never needs more than a full bucket
+        if (tokens >= need) {
+            tokens -= need;
+            return 0;
+        }
+        return (long) Math.ceil((need - tokens) / ratePerNano);
+    }
+
+    /** Gives back tokens taken for a request that was refused later. */
+    public synchronized void refund(double cost) {
+        tokens = Math.min(capacity, tokens + Math.min(cost, capacity));
+    }
+
+    public synchronized boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+        }
+    }
+}
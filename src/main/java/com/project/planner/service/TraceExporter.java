@@ -0,0 +1,149 @@
+package com.project.planner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.planner.logic.Trace;
+import com.project.planner.logic.Trace.Span;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ships finished traces as Zipkin v2 JSON spans, off the request path.
+ * - File: one JSON array per trace per line (each line is a valid POST body for /api/v2/spans).
+ * - Collector: batches POSTed to a Zipkin-compatible endpoint, e.g. http://localhost:9411/api/v2/spans.
+ * - Traces are queued (bounded) and written by one daemon thread; when the queue is full they are
+ *   dropped and counted rather than slowing requests down.
+ */
+public class TraceExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceExporter.class);
+
+    private static final int QUEUE_SIZE = 4096;
+    private static final int BATCH = 64;
+    private static final String SERVICE_NAME = "personalized-planner";
+
+    private final Path file;
+    private final URI collector;
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient http;
+    private final BlockingQueue<Trace> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicLong exported = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean collectorFailing;
+
+    /** @param file NDJSON output, or null; @param collector span endpoint, or null */
+    public TraceExporter(Path file, URI collector) {
+        this.file = file;
+        this.collector = collector;
+        this.http = collector == null ? null : HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        this.writer = new Thread(this::drain, "trace-export");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void export(Trace trace) {
+        if (!queue.offer(trace)) dropped.incrementAndGet();
+    }
+
+    public long getExported() { return exported.get(); }
+
+    public long getDropped() { return dropped.get(); }
+
+    public void shutdown() {
+        writer.interrupt();
+    }
+
+    private void drain() {
+        List<Trace> batch = new ArrayList<>(BATCH);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            queue.drainTo(batch);
+            write(batch);
+        }
+    }
+
+    private void write(List<Trace> batch) {
+        if (batch.isEmpty()) return;
+        List<List<Map<String, Object>>> traces = new ArrayList<>(batch.size());
+        for (Trace t : batch) traces.add(zipkinSpans(t));
+        if (file != null) {
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (List<Map<String, Object>> spans : traces) {
+                    out.write(json.writeValueAsString(spans));
+                    out.newLine();
+                }
+            } catch (IOException e) {
+                log.warn("trace file {} not written: {}", file, e.getMessage());
+            }
+        }
+        if (collector != null) post(traces);
+        exported.addAndGet(batch.size());
+    }
+
+    private void post(List<List<Map<String, Object>>> traces) {
+        List<Map<String, Object>> all = new ArrayList<>();
+        traces.forEach(all::addAll);
+        try {
+            HttpRequest request = HttpRequest.newBuilder(collector)
+                    .timeout(Duration.ofSeconds(5))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(all)))
+                    .build();
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 300) throw new IOException("HTTP " + status);
+            collectorFailing = false;
+        } catch (IOException e) {
+            // reported once per outage, not once per batch
+            if (!collectorFailing) log.warn("trace collector {} unavailable: {}", collector, e.getMessage());
+            collectorFailing = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static List<Map<String, Object>> zipkinSpans(Trace t) {
+        List<Map<String, Object>> out = new ArrayList<>();
+        String traceId = t.traceId();
+        for (Span s : t.spans()) {
+            if (s.durationNanos() < 0) continue; // never closed, e.g. a stage abandoned by a timeout
+            Map<String, Object> span = new LinkedHashMap<>();
+            span.put("traceId", traceId);
+            span.put("id", String.format("%016x", s.id));
+            if (s.parent != null) span.put("parentId", String.format("%016x", s.parent.id));
+            else span.put("kind", "SERVER");
+            span.put("name", s.name);
+            span.put("timestamp", t.startEpochMicros + (s.startNanos - t.startNanos) / 1000);
+            span.put("duration", Math.max(1, s.durationNanos() / 1000));
+            span.put("localEndpoint", Map.of("serviceName", SERVICE_NAME));
+            if (!s.tags().isEmpty()) span.put("tags", s.tags());
+            out.add(span);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.planner.service;
+
+import com.project.planner.logic.Trace;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Request tracing: TracingFilter starts a trace per plan request, the controller, the service pipeline
+ * and the engine add spans, and finished traces go to the configured sinks.
+ * - planner.trace.file: append Zipkin JSON spans to this file.
+ * - planner.trace.collector-url: POST them to a Zipkin-compatible collector.
+ * - planner.trace.jfr.enabled: record slow requests (over planner.trace.jfr.threshold-ms) as JFR events
+ *   into planner.trace.jfr.file.
+ * With none of these set no trace is started and the spans in the code are no-ops.
+ */
+@Service
+public class Tracing {
+
+    @Value("${planner.trace.file:}")
+    private String traceFile = "";
+
+    @Value("${planner.trace.collector-url:}")
+    private String collectorUrl = "";
+
+    @Value("${planner.trace.jfr.enabled:false}")
+    private boolean jfrEnabled = false;
+
+    @Value("${planner.trace.jfr.threshold-ms:500}")
+    private long jfrThresholdMs = 500;
+
+    @Value("${planner.trace.jfr.file:planner-slow-requests.jfr}")
+    private String jfrFile = "planner-slow-requests.jfr";
+
+    @Value("${planner.trace.jfr.max-age-minutes:60}")
+    private long jfrMaxAgeMinutes = 60;
+
+    private TraceExporter exporter;
+    private SlowRequestRecorder recorder;
+
+    @PostConstruct
+    public void init() throws IOException {
+        boolean toFile = traceFile != null && !traceFile.isBlank();
+        boolean toCollector = collectorUrl != null && !collectorUrl.isBlank();
+        if (toFile || toCollector) {
+            exporter = new TraceExporter(toFile ? Path.of(traceFile) : null, toCollector ? URI.create(collectorUrl) : null);
+        }
+        if (jfrEnabled) {
+            recorder = new SlowRequestRecorder(Duration.ofMillis(jfrThresholdMs), Path.of(jfrFile),
+                    Duration.ofMinutes(jfrMaxAgeMinutes));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (exporter != null) exporter.shutdown();
+        if (recorder != null) recorder.stop();
+    }
+
+    public boolean isEnabled() {
+        return exporter != null || recorder != null;
+    }
+
+    /** New trace with a root span named {@code name}, or null when tracing is off. */
+    public Trace start(String name) {
+        if (!isEnabled()) return null;
+        Trace trace = new Trace(name);
+        if (recorder != null) recorder.begin(trace);
+        return trace;
+    }
+
+    /** Closes the root span and hands the trace to the sinks. */
+    public void finish(Trace trace) {
+        if (trace == null) return;
+        trace.root().close();
+        if (recorder != null) recorder.end(trace);
+        if (exporter != null) exporter.export(trace);
+    }
+
+    public TraceExporter getExporter() {
+        return exporter;
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.planner.service;
+
+/**
+ * Thrown when a profile names a tenant that has no catalog overlay loaded.
+ */
+public class UnknownTenantException extends RuntimeException {
+
+    private final String tenant;
+
+    public UnknownTenantException(String tenant) {
+        super("unknown tenant '" + tenant + "'");
+        this.tenant = tenant;
+    }
+
+    public String getTenant() { return tenant; }
+}
@@ -55,6 +55,72 @@ document.addEventListener('DOMContentLoaded', () => {
     el.addEventListener('blur', ()=> el.closest('.field').classList.remove('focus'));
   });
 
+  // autocomplete for comma-separated ingredient/cuisine fields (GET /api/suggest);
+  // picking a suggestion writes the catalog term, so the planner matches it exactly
+  const suggestCache = new Map();
+  document.querySelectorAll('input[data-suggest]').forEach(input=>{
+    const kind = input.dataset.suggest;
+    const list = document.createElement('ul');
+    list.className = 'suggestions';
+    list.setAttribute('role', 'listbox');
+    input.closest('.field').appendChild(list);
+    let items = [], active = -1, timer = null, inflight = null;
+
+    const current = ()=> input.value.split(',').pop().trim();
+
+    function render(){
+      list.innerHTML = '';
+      items.forEach((s,i)=>{
+        const li = document.createElement('li');
+        li.textContent = s.match === s.id ? s.id : `${s.id} (${s.match})`;
+        li.classList.toggle('active', i===active);
+        li.addEventListener('mousedown', e=>{ e.preventDefault(); pick(i); });
+        list.appendChild(li);
+      });
+      list.classList.toggle('open', items.length > 0);
+    }
+
+    function show(found){ items = found; active = -1; render(); }
+
+    function pick(i){
+      const parts = input.value.split(',').map(p=>p.trim()).filter(Boolean);
+      if(input.value.trim() && !input.value.trim().endsWith(',')) parts.pop();
+      parts.push(items[i].id);
+      input.value = parts.join(', ') + ', ';
+      show([]);
+      input.focus();
+    }
+
+    function lookup(){
+      const q = current().toLowerCase();
+      if(!q){ show([]); return; }
+      const key = kind + ':' + q;
+      if(suggestCache.has(key)){ show(suggestCache.get(key)); return; }
+      if(inflight) inflight.abort(); // only the latest keystroke matters
+      inflight = new AbortController();
+      fetch(`/api/suggest?kind=${kind}&q=${encodeURIComponent(q)}`, { signal: inflight.signal })
+        .then(r=> r.ok ? r.json() : [])
+        .then(found=>{ suggestCache.set(key, found); if(current().toLowerCase() === q) show(found); })
+        .catch(()=>{});
+    }
+
+    input.addEventListener('input', ()=>{ clearTimeout(timer); timer = setTimeout(lookup, 60); });
+    input.addEventListener('blur', ()=> show([]));
+    input.addEventListener('keydown', e=>{
+      if(!items.length) return;
+      if(e.key === 'ArrowDown' || e.key === 'ArrowUp'){
+        e.preventDefault();
+        active = (active + (e.key === 'ArrowDown' ? 1 : items.length - 1)) % items.length;
+        render();
+      } else if((e.key === 'Enter' || e.key === 'Tab') && active >= 0){
+        e.preventDefault();
+        pick(active);
+      } else if(e.key === 'Escape'){
+        show([]);
+      }
+    });
+  });
+
   // form submit animation
   form.addEventListener('submit', (e)=>{
     const submit = form.querySelector('button[type="submit"]');
@@ -0,0 +1,38 @@
+package com.project.planner.logic;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ScoringKernel on the incubating Vector API (JDK 17: --add-modules jdk.incubator.vector).
+ * - Built only with -Psimd (src/simd/java), and only ever loaded reflectively by
+ *   ScoringKernel.preferred(), so the default build and the JVM run without the module.
+ * - The tail past the last full vector is finished with scalar code.
+ */
+final class VectorScoringKernel implements ScoringKernel {
+
+    private static final VectorSpecies<Double> S = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector-" + S.vectorBitSize();
+    }
+
+    @Override
+    public int firstFit(MealColumns c, double maxKcal, double maxCost) {
+        int n = c.size, upper = S.loopBound(n), i = 0;
+        DoubleVector kcalLimit = DoubleVector.broadcast(S, maxKcal);
+        DoubleVector costLimit = DoubleVector.broadcast(S, maxCost);
+        for (; i < upper; i += S.length()) {
+            VectorMask<Double> fits = DoubleVector.fromArray(S, c.cost, i).compare(VectorOperators.LE, costLimit)
+                    .and(DoubleVector.fromArray(S, c.calories, i).compare(VectorOperators.LE, kcalLimit));
+            if (fits.anyTrue()) return i + fits.firstTrue();
+        }
+        for (; i < n; i++) {
+            if (c.cost[i] <= maxCost && c.calories[i] <= maxKcal) return i;
+        }
+        return -1;
+    }
+}